@@ -0,0 +1,58 @@
+package org.example.benchmarks;
+
+import org.openqa.selenium.remote.CommandCodec;
+import org.openqa.selenium.remote.SessionId;
+import org.openqa.selenium.remote.codec.w3c.W3CHttpCommandCodec;
+import org.openqa.selenium.remote.http.HttpRequest;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+import java.util.Map;
+
+/**
+ * The codec a benchmark runs against, selected by its {@code codec} parameter: {@code override} for the project's
+ * {@link W3CHttpCommandCodec}, {@code upstream} for Selenium's own from {@link UpstreamCodec}, together with a
+ * handle on its private {@code amendParameters} to measure the parameter rewriting without building the request.
+ */
+final class CodecFixture {
+
+    static final String OVERRIDE = "override";
+    static final String UPSTREAM = "upstream";
+
+    static final SessionId SESSION = new SessionId("0f3c2b1a9e8d7c6b5a4f3e2d1c0b9a87");
+    static final String ELEMENT = "7a1e5c2d-3b4f-4e6a-9c8d-0f1e2d3c4b5a";
+
+    private final CommandCodec<HttpRequest> codec;
+    private final MethodHandle amendParameters;
+
+    private CodecFixture(CommandCodec<HttpRequest> codec, MethodHandle amendParameters) {
+        this.codec = codec;
+        this.amendParameters = amendParameters;
+    }
+
+    static CodecFixture of(String codec) throws ReflectiveOperationException {
+        CommandCodec<HttpRequest> instance;
+        switch (codec) {
+            case OVERRIDE:
+                instance = new W3CHttpCommandCodec();
+                break;
+            case UPSTREAM:
+                instance = UpstreamCodec.create();
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown codec " + codec);
+        }
+        Method amend = instance.getClass().getDeclaredMethod("amendParameters", String.class, Map.class);
+        amend.setAccessible(true);
+        return new CodecFixture(instance, MethodHandles.lookup().unreflect(amend).bindTo(instance));
+    }
+
+    CommandCodec<HttpRequest> codec() {
+        return codec;
+    }
+
+    Object amendParameters(String name, Map<String, ?> parameters) throws Throwable {
+        return amendParameters.invoke(name, parameters);
+    }
+}
@@ -0,0 +1,106 @@
+package org.example.benchmarks;
+
+import org.example.batch.BatchResult;
+import org.example.batch.CommandBatch;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.html5.LocalStorage;
+import org.openqa.selenium.remote.RemoteExecuteMethod;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.remote.RemoteWebElement;
+import org.openqa.selenium.remote.html5.RemoteWebStorage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares a login-style sequence of storage and attribute reads sent one command at a time with the same
+ * reads sent through a {@link CommandBatch}, against a {@link StubCommandExecutor} with a fixed latency per
+ * round trip. The {@code roundTrips} and {@code invocations} counters show how many requests each variant sent
+ * per sequence.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CommandBatchBenchmark {
+
+    @Param({"5", "20", "40"})
+    public int commands;
+
+    @Param({"0", "500"})
+    public long latencyMicros;
+
+    private StubCommandExecutor executor;
+    private RemoteWebDriver driver;
+    private LocalStorage localStorage;
+    private RemoteWebElement element;
+
+    @Setup
+    public void setUp() {
+        executor = new StubCommandExecutor(latencyMicros);
+        driver = new RemoteWebDriver(executor, new ChromeOptions());
+        localStorage = new RemoteWebStorage(new RemoteExecuteMethod(driver)).getLocalStorage();
+        element = new RemoteWebElement();
+        element.setParent(driver);
+        element.setId("7a1e5c2d-3b4f-4e6a-9c8d-0f1e2d3c4b5a");
+    }
+
+    @Benchmark
+    public void individual(RoundTrips counters, Blackhole blackhole) {
+        long before = executor.roundTrips();
+        for (int i = 0; i < commands; i++) {
+            blackhole.consume(i % 2 == 0 ? localStorage.getItem("key-" + i) : element.getAttribute("data-" + i));
+        }
+        counters.record(executor.roundTrips() - before);
+    }
+
+    @Benchmark
+    public void batched(RoundTrips counters, Blackhole blackhole) {
+        long before = executor.roundTrips();
+        CommandBatch batch = CommandBatch.on(driver);
+        List<BatchResult<String>> results = new ArrayList<>(commands);
+        for (int i = 0; i < commands; i++) {
+            results.add(i % 2 == 0 ? batch.getLocalStorageItem("key-" + i) : batch.getAttribute(element, "data-" + i));
+        }
+        batch.execute();
+        for (BatchResult<String> result : results) {
+            blackhole.consume(result.get());
+        }
+        counters.record(executor.roundTrips() - before);
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class RoundTrips {
+        public long roundTrips;
+        public long invocations;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            roundTrips = 0;
+            invocations = 0;
+        }
+
+        void record(long sent) {
+            roundTrips += sent;
+            invocations++;
+        }
+    }
+}
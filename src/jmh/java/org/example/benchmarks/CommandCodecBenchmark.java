@@ -0,0 +1,90 @@
+package org.example.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.remote.Command;
+import org.openqa.selenium.remote.codec.w3c.W3CHttpCommandCodec;
+import org.openqa.selenium.remote.http.HttpRequest;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the project's {@link W3CHttpCommandCodec} override with Selenium's own codec on the commands the
+ * suite sends most. Run with {@code mvn verify -Pbenchmarks}; results, including the allocation rate from the
+ * GC profiler, are written to {@code target/jmh-result.json}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CommandCodecBenchmark {
+
+    @Param({"override", "upstream"})
+    public String codec;
+
+    @Param({"findElement", "executeScript", "sendKeys", "getAttribute", "storage"})
+    public String command;
+
+    private CodecFixture target;
+    private Command sample;
+
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        target = CodecFixture.of(codec);
+        sample = sample(command);
+    }
+
+    @Benchmark
+    public HttpRequest encode() {
+        return target.codec().encode(sample);
+    }
+
+    @Benchmark
+    public Object amendParameters() throws Throwable {
+        return target.amendParameters(sample.getName(), sample.getParameters());
+    }
+
+    static Command sample(String command) {
+        switch (command) {
+            case "findElement":
+                return new Command(CodecFixture.SESSION, "findElement", Map.of("using", "id", "value", "login-form:submit"));
+            case "executeScript":
+                return new Command(CodecFixture.SESSION, "executeScript", Map.of("script", "return document.readyState", "args", Collections.emptyList()));
+            case "sendKeys":
+                return new Command(CodecFixture.SESSION, "sendKeysToElement", Map.of("id", CodecFixture.ELEMENT, "value", new CharSequence[]{payload()}));
+            case "getAttribute":
+                return new Command(CodecFixture.SESSION, "getElementAttribute", Map.of("id", CodecFixture.ELEMENT, "name", "href"));
+            case "storage":
+                return new Command(CodecFixture.SESSION, "getLocalStorageItem", Map.of("key", "session-token"));
+            default:
+                throw new IllegalArgumentException("Unknown command " + command);
+        }
+    }
+
+    /**
+     * A 1 KiB JSON document with a few non-Latin-1 and supplementary characters, as typed by the data-entry suites.
+     */
+    private static String payload() {
+        List<String> fields = Arrays.asList("\"name\":\"Zoë Łukasz\"", "\"city\":\"Zürich\"", "\"note\":\"✓ 😀\"", "\"id\":12345");
+        StringBuilder json = new StringBuilder("{");
+        while (json.length() < 1024) {
+            json.append(String.join(",", fields)).append(',');
+        }
+        return json.append("\"end\":true}").toString();
+    }
+}
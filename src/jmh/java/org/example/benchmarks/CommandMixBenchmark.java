@@ -0,0 +1,125 @@
+package org.example.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openqa.selenium.remote.Command;
+import org.openqa.selenium.remote.codec.w3c.AtomScriptCache;
+import org.openqa.selenium.remote.codec.w3c.W3CHttpCommandCodec;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+/**
+ * Compares the transformer table of the project's {@link W3CHttpCommandCodec} with the nested {@code switch}
+ * dispatch of Selenium's own codec, which the override was decompiled from, on a mix of commands weighted like a
+ * page-object scenario: mostly element lookups, attribute and visibility reads, and commands that pass through
+ * unchanged, with some typing, storage and script calls. Scores are per command.
+ * <p>
+ * With {@code elements=repeated} every invocation reads the same ten elements, as a wait polling a form does, so
+ * the override answers the attribute and visibility reads from the {@link AtomScriptCache} payload cache. With
+ * {@code elements=distinct} each invocation reads elements of its own, cycling through more than the cache holds,
+ * so every payload is built and the score is that of the transformer table itself. Adding
+ * {@code -jvmArgsAppend -Dwebdriver.codec.atoms.cache-size=0} measures the override with the cache turned off.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CommandMixBenchmark {
+
+    private static final int MIX_SIZE = 100;
+    // 30 atom reads per mix, so 64 mixes of distinct elements hold more payloads than the default 1024 cached
+    private static final int DISTINCT_MIXES = 64;
+
+    @Param({"override", "upstream"})
+    public String codec;
+
+    @Param({"repeated", "distinct"})
+    public String elements;
+
+    private CodecFixture target;
+    private List<List<Command>> mixes;
+    private int next;
+
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        target = CodecFixture.of(codec);
+        mixes = new ArrayList<>();
+        if ("repeated".equals(elements)) {
+            mixes.add(mix(i -> "7a1e5c2d-3b4f-4e6a-9c8d-0f1e2d3c4b5" + i % 10));
+        } else {
+            for (int round = 0; round < DISTINCT_MIXES; round++) {
+                int first = round * MIX_SIZE;
+                mixes.add(mix(i -> String.format("7a1e5c2d-3b4f-4e6a-9c8d-%012x", first + i)));
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MIX_SIZE)
+    public void encode(Blackhole blackhole) {
+        for (Command command : nextMix()) {
+            blackhole.consume(target.codec().encode(command));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MIX_SIZE)
+    public void amendParameters(Blackhole blackhole) throws Throwable {
+        for (Command command : nextMix()) {
+            blackhole.consume(target.amendParameters(command.getName(), command.getParameters()));
+        }
+    }
+
+    private List<Command> nextMix() {
+        List<Command> mix = mixes.get(next);
+        next = next + 1 == mixes.size() ? 0 : next + 1;
+        return mix;
+    }
+
+    /**
+     * @param element the id of the i-th element the mix reads
+     * @return {@value #MIX_SIZE} commands in a fixed shuffled order, so that both codecs see the same sequence
+     */
+    static List<Command> mix(IntFunction<String> element) {
+        List<Command> mix = new ArrayList<>(MIX_SIZE);
+        add(mix, 25, i -> new Command(CodecFixture.SESSION, "findElement", Map.of("using", i % 3 == 0 ? "css selector" : "id", "value", "field-" + i % 8)));
+        add(mix, 5, i -> new Command(CodecFixture.SESSION, "findElements", Map.of("using", "class name", "value", "row-" + i % 4)));
+        add(mix, 15, i -> new Command(CodecFixture.SESSION, "getElementAttribute", Map.of("id", element.apply(i), "name", "value")));
+        add(mix, 15, i -> new Command(CodecFixture.SESSION, "isElementDisplayed", Map.of("id", element.apply(i))));
+        add(mix, 15, i -> new Command(CodecFixture.SESSION, "clickElement", Map.of("id", element.apply(i))));
+        add(mix, 5, i -> new Command(CodecFixture.SESSION, "getElementText", Map.of("id", element.apply(i))));
+        add(mix, 6, i -> new Command(CodecFixture.SESSION, "sendKeysToElement", Map.of("id", element.apply(i), "value", new CharSequence[]{"user" + i + "@example.org"})));
+        add(mix, 4, i -> new Command(CodecFixture.SESSION, i % 2 == 0 ? "getLocalStorageItem" : "setLocalStorageItem", Map.of("key", "token", "value", "abc" + i)));
+        add(mix, 4, i -> new Command(CodecFixture.SESSION, "executeScript", Map.of("script", "return document.readyState", "args", Collections.emptyList())));
+        add(mix, 2, i -> new Command(CodecFixture.SESSION, "getPageSource", Map.of()));
+        add(mix, 2, i -> new Command(CodecFixture.SESSION, "setTimeout", Map.of("type", "implicit", "ms", 0)));
+        add(mix, 2, i -> new Command(CodecFixture.SESSION, "get", Map.of("url", "https://example.org/page/" + i)));
+        Collections.shuffle(mix, new Random(42));
+        return Collections.unmodifiableList(mix);
+    }
+
+    private static void add(List<Command> mix, int count, IntFunction<Command> command) {
+        for (int i = 0; i < count; i++) {
+            mix.add(command.apply(i));
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package org.example.benchmarks;
+
+import org.example.metrics.RunMetrics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the {@link RunMetrics} bookkeeping that the metrics plugin does for each step, with many threads
+ * recording into the same histograms. {@code step} stands in for a step that does a fixed amount of work,
+ * far less than any real WebDriver step; {@code instrumentedStep} does the same work and records it, so the
+ * difference between the two is the overhead per step.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+public class RunMetricsBenchmark {
+
+    private static final String[] PATTERNS = {
+            "I run mock step in {int} seconds", "I open the {string} page", "I log in as {string}",
+            "I should see {int} results", "the {string} field contains {string}"
+    };
+
+    @Param({"20000"})
+    public long stepTokens;
+
+    private final RunMetrics metrics = RunMetrics.instance();
+
+    @Benchmark
+    public void recordStep() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        metrics.stepFinished(PATTERNS[random.nextInt(PATTERNS.length)], random.nextLong(1_000_000, 10_000_000_000L));
+    }
+
+    @Benchmark
+    public void recordScenario() {
+        metrics.scenarioStarted();
+        metrics.scenarioFinished(ThreadLocalRandom.current().nextLong(1_000_000_000L, 60_000_000_000L));
+    }
+
+    @Benchmark
+    public void step() {
+        Blackhole.consumeCPU(stepTokens);
+    }
+
+    @Benchmark
+    public void instrumentedStep() {
+        long started = System.nanoTime();
+        Blackhole.consumeCPU(stepTokens);
+        metrics.stepFinished(PATTERNS[ThreadLocalRandom.current().nextInt(PATTERNS.length)], System.nanoTime() - started);
+    }
+}
@@ -0,0 +1,83 @@
+package org.example.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.remote.codec.w3c.W3CHttpCommandCodec;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of encoding the text of a {@code sendKeysToElement} command, in the project's {@link W3CHttpCommandCodec}
+ * and in Selenium's own codec. Each invocation types {@value #CHARS} UTF-16 chars, so with
+ * {@code -prof gc} the {@code gc.alloc.rate.norm} score is the bytes allocated per character typed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SendKeysBenchmark {
+
+    private static final int CHARS = 4096;
+
+    @Param({"override", "upstream"})
+    public String codec;
+
+    @Param({"ascii", "latin1", "bmp", "supplementary"})
+    public String text;
+
+    private CodecFixture target;
+    private Map<String, ?> parameters;
+
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        target = CodecFixture.of(codec);
+        parameters = Map.of("id", CodecFixture.ELEMENT, "value", new CharSequence[]{text(text)});
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CHARS)
+    public Object sendKeys() throws Throwable {
+        return target.amendParameters("sendKeysToElement", parameters);
+    }
+
+    /**
+     * @return {@value #CHARS} chars repeating a sample of the given range; supplementary characters take two each
+     */
+    static String text(String range) {
+        String sample;
+        switch (range) {
+            case "ascii":
+                sample = "{\"name\":\"John Smith\",\"id\":12345}";
+                break;
+            case "latin1":
+                sample = "{\"name\":\"Zoë Ñandú\",\"city\":\"Zürich\"}";
+                break;
+            case "bmp":
+                sample = "{\"name\":\"Łukasz 中文\",\"note\":\"✓ €\"}";
+                break;
+            case "supplementary":
+                sample = "😀𠜎𝄞";
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown text range " + range);
+        }
+        StringBuilder text = new StringBuilder(CHARS + sample.length());
+        while (text.length() < CHARS) {
+            text.append(sample);
+        }
+        return text.substring(0, CHARS);
+    }
+}
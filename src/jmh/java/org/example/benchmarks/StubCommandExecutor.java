@@ -0,0 +1,70 @@
+package org.example.benchmarks;
+
+import org.openqa.selenium.remote.Command;
+import org.openqa.selenium.remote.CommandExecutor;
+import org.openqa.selenium.remote.DriverCommand;
+import org.openqa.selenium.remote.Response;
+import org.openqa.selenium.remote.codec.w3c.W3CHttpCommandCodec;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Stands in for a remote browser: encodes every command with the project's codec as the HTTP executor would,
+ * waits a fixed latency per round trip and answers with canned values. Batched scripts get one successful
+ * result per queued command.
+ */
+final class StubCommandExecutor implements CommandExecutor {
+
+    private static final String SESSION_ID = "0f3c2b1a9e8d7c6b5a4f3e2d1c0b9a87";
+
+    private final W3CHttpCommandCodec codec = new W3CHttpCommandCodec();
+    private final long latencyNanos;
+    private final AtomicLong roundTrips = new AtomicLong();
+
+    StubCommandExecutor(long latencyMicros) {
+        this.latencyNanos = TimeUnit.MICROSECONDS.toNanos(latencyMicros);
+    }
+
+    long roundTrips() {
+        return roundTrips.get();
+    }
+
+    @Override
+    public Response execute(Command command) {
+        Response response = new Response();
+        response.setSessionId(SESSION_ID);
+        response.setState("success");
+        if (DriverCommand.NEW_SESSION.equals(command.getName())) {
+            response.setValue(Collections.singletonMap("browserName", "chrome"));
+            return response;
+        }
+        codec.encode(command);
+        roundTrips.incrementAndGet();
+        if (latencyNanos > 0) {
+            LockSupport.parkNanos(latencyNanos);
+        }
+        response.setValue(respond(command));
+        return response;
+    }
+
+    private static Object respond(Command command) {
+        Map<String, ?> parameters = command.getParameters();
+        if (DriverCommand.EXECUTE_SCRIPT.equals(command.getName())) {
+            List<?> args = (List<?>) parameters.get("args");
+            if (!args.isEmpty() && args.get(0) instanceof List) {
+                List<Object> results = new ArrayList<>();
+                for (int i = 0; i < ((List<?>) args.get(0)).size(); i++) {
+                    results.add(List.of(true, "value-" + i));
+                }
+                return results;
+            }
+        }
+        return "value";
+    }
+}
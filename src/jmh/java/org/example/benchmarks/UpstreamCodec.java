@@ -0,0 +1,65 @@
+package org.example.benchmarks;
+
+import org.openqa.selenium.remote.CommandCodec;
+import org.openqa.selenium.remote.codec.w3c.W3CHttpCommandCodec;
+import org.openqa.selenium.remote.http.HttpRequest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.Collections;
+
+/**
+ * Loads Selenium's own {@code W3CHttpCommandCodec} from the selenium-remote-driver jar, side by side with the
+ * project's override that shadows it on the classpath.
+ */
+final class UpstreamCodec {
+
+    private static final String CODEC_CLASS = W3CHttpCommandCodec.class.getName();
+    private static final String CODEC_RESOURCE = CODEC_CLASS.replace('.', '/') + ".class";
+
+    private UpstreamCodec() {
+    }
+
+    @SuppressWarnings("unchecked")
+    static CommandCodec<HttpRequest> create() {
+        try {
+            URL jarEntry = Collections.list(UpstreamCodec.class.getClassLoader().getResources(CODEC_RESOURCE)).stream()
+                    .filter(url -> "jar".equals(url.getProtocol()))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException("selenium-remote-driver is not on the classpath"));
+            byte[] bytecode;
+            try (InputStream stream = jarEntry.openStream()) {
+                bytecode = stream.readAllBytes();
+            }
+            Class<?> codec = new UpstreamClassLoader(UpstreamCodec.class.getClassLoader(), bytecode).loadClass(CODEC_CLASS);
+            return (CommandCodec<HttpRequest>) codec.getConstructor().newInstance();
+        } catch (IOException | ReflectiveOperationException e) {
+            throw new IllegalStateException("Unable to load the upstream W3CHttpCommandCodec", e);
+        }
+    }
+
+    /**
+     * Defines the upstream codec class itself and delegates everything else to the application class loader.
+     */
+    private static class UpstreamClassLoader extends ClassLoader {
+
+        private final byte[] bytecode;
+
+        UpstreamClassLoader(ClassLoader parent, byte[] bytecode) {
+            super(parent);
+            this.bytecode = bytecode;
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (!CODEC_CLASS.equals(name)) {
+                return super.loadClass(name, resolve);
+            }
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> loaded = findLoadedClass(name);
+                return loaded != null ? loaded : defineClass(name, bytecode, 0, bytecode.length);
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package org.example;
+
+import net.thucydides.core.model.TestOutcome;
+import net.thucydides.core.util.EnvironmentVariables;
+import org.openqa.selenium.MutableCapabilities;
+import org.openqa.selenium.UnexpectedAlertBehaviour;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.logging.LogType;
+import org.openqa.selenium.logging.LoggingPreferences;
+import org.openqa.selenium.remote.CapabilityType;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.logging.Level;
+
+/**
+ * Builds the scenario-independent Chrome and Selenoid capabilities once per Selenoid configuration; each scenario
+ * only gets a copy of the template plus its own Selenoid session name.
+ */
+public class CapabilityFactory {
+
+    static final String DEFAULT_SESSION_NAME = "Mock test";
+
+    private static final ConcurrentMap<SelenoidSettings, CapabilityFactory> INSTANCES = new ConcurrentHashMap<>();
+
+    private final ChromeOptions chromeOptionsTemplate;
+    private final Map<String, Object> selenoidOptionsTemplate;
+
+    private CapabilityFactory(SelenoidSettings settings) {
+        ChromeOptions options = new ChromeOptions();
+        Map<String, Object> chromeLocalStatePrefs = new HashMap<>();
+        chromeLocalStatePrefs.put("browser.enabled_labs_experiments", List.of("same-site-by-default-cookies@2"));
+        options.setExperimentalOption("localState", Collections.unmodifiableMap(chromeLocalStatePrefs));
+        //accept self-signed certificate
+        options.setAcceptInsecureCerts(true);
+        //overcome CORS issues with SSL
+        options.addArguments("--disable-web-security");
+        options.addArguments("--start-maximized");
+
+        LoggingPreferences logPrefs = new LoggingPreferences();
+        logPrefs.enable(LogType.PERFORMANCE, Level.ALL);
+        options.setCapability("goog:loggingPrefs", logPrefs);
+        this.chromeOptionsTemplate = options;
+
+        // This capabilities can be used for selenoid grid
+        Map<String, Object> selenoidOptions = new HashMap<>();
+        selenoidOptions.put("sessionTimeout", settings.sessionTimeout());
+        selenoidOptions.put("enableVNC", settings.enableVnc());
+        selenoidOptions.put("enableVideo", settings.enableVideo());
+        this.selenoidOptionsTemplate = Collections.unmodifiableMap(selenoidOptions);
+    }
+
+    /**
+     * @return the factory for the Selenoid settings the given environment currently resolves to, built on first use
+     */
+    public static CapabilityFactory forEnvironment(EnvironmentVariables environmentVariables) {
+        return INSTANCES.computeIfAbsent(SelenoidSettings.from(environmentVariables), CapabilityFactory::new);
+    }
+
+    public MutableCapabilities apply(MutableCapabilities capabilities, TestOutcome testOutcome) {
+        Map<String, Object> selenoidOptions = new HashMap<>(selenoidOptionsTemplate);
+        selenoidOptions.put("name", sessionName(testOutcome));
+        capabilities.setCapability("selenoid:options", selenoidOptions);
+
+        capabilities.setCapability(ChromeOptions.CAPABILITY, new ChromeOptions().merge(chromeOptionsTemplate));
+        capabilities.setCapability(CapabilityType.UNHANDLED_PROMPT_BEHAVIOUR, UnexpectedAlertBehaviour.IGNORE);
+        return capabilities;
+    }
+
+    static String sessionName(TestOutcome testOutcome) {
+        if (testOutcome == null || testOutcome.getName() == null) {
+            return DEFAULT_SESSION_NAME;
+        }
+        String feature = testOutcome.getStoryTitle();
+        return feature == null || feature.isEmpty() ? testOutcome.getName() : feature + ": " + testOutcome.getName();
+    }
+
+    private record SelenoidSettings(String sessionTimeout, boolean enableVnc, boolean enableVideo) {
+
+        static SelenoidSettings from(EnvironmentVariables environmentVariables) {
+            return new SelenoidSettings(
+                    environmentVariables.getProperty("selenoid.session.timeout", "5m"),
+                    environmentVariables.getPropertyAsBoolean("selenoid.enable.vnc", true),
+                    environmentVariables.getPropertyAsBoolean("selenoid.enable.video", false));
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package org.example;
+
+import net.thucydides.core.environment.MockEnvironmentVariables;
+import net.thucydides.core.model.Story;
+import net.thucydides.core.model.TestOutcome;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.MutableCapabilities;
+import org.openqa.selenium.UnexpectedAlertBehaviour;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.logging.LogType;
+import org.openqa.selenium.logging.LoggingPreferences;
+import org.openqa.selenium.remote.CapabilityType;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Compares the capabilities {@link CapabilityFactory} sends with the ones {@link BeforeWebdriver} built for every
+ * scenario before the templates were introduced.
+ */
+class CapabilityFactoryTest {
+
+    private static final Json JSON = new Json();
+
+    @Test
+    void buildsTheSameCapabilitiesAsBefore() {
+        MockEnvironmentVariables environment = new MockEnvironmentVariables();
+
+        for (int scenario = 0; scenario < 3; scenario++) {
+            assertEquals(asSent(previous()), asSent(new BeforeWebdriver().apply(environment, null, null, new MutableCapabilities())));
+        }
+    }
+
+    @Test
+    void followsTheSelenoidSettingsOfEachEnvironment() {
+        MockEnvironmentVariables defaults = new MockEnvironmentVariables();
+        MockEnvironmentVariables recorded = new MockEnvironmentVariables();
+        recorded.setProperty("selenoid.session.timeout", "10m");
+        recorded.setProperty("selenoid.enable.vnc", "false");
+        recorded.setProperty("selenoid.enable.video", "true");
+
+        assertSame(CapabilityFactory.forEnvironment(defaults), CapabilityFactory.forEnvironment(new MockEnvironmentVariables()));
+        assertNotSame(CapabilityFactory.forEnvironment(defaults), CapabilityFactory.forEnvironment(recorded));
+        assertEquals(Map.of("name", CapabilityFactory.DEFAULT_SESSION_NAME, "sessionTimeout", "10m", "enableVNC", false,
+                        "enableVideo", true),
+                CapabilityFactory.forEnvironment(recorded).apply(new MutableCapabilities(), null).getCapability("selenoid:options"));
+    }
+
+    @Test
+    void namesTheSessionAfterTheFeatureAndScenario() {
+        CapabilityFactory factory = CapabilityFactory.forEnvironment(new MockEnvironmentVariables());
+        TestOutcome outcome = TestOutcome.forTestInStory("Valid user logs in", Story.called("Login"));
+
+        MutableCapabilities capabilities = factory.apply(new MutableCapabilities(), outcome);
+
+        assertEquals("Login: Valid user logs in", ((Map<?, ?>) capabilities.getCapability("selenoid:options")).get("name"));
+        assertEquals("Valid user logs in", CapabilityFactory.sessionName(new TestOutcome("Valid user logs in")));
+    }
+
+    @Test
+    void keepsTheTemplatesOfDifferentSelenoidSettingsApart() {
+        MockEnvironmentVariables video = new MockEnvironmentVariables();
+        video.setProperty("selenoid.enable.video", "true");
+        MockEnvironmentVariables longSessions = new MockEnvironmentVariables();
+        longSessions.setProperty("selenoid.session.timeout", "30m");
+        CapabilityFactory videoFactory = CapabilityFactory.forEnvironment(video);
+        CapabilityFactory longSessionsFactory = CapabilityFactory.forEnvironment(longSessions);
+
+        // only the Selenoid options differ
+        assertNotSame(videoFactory, longSessionsFactory);
+        assertEquals(Map.of("name", CapabilityFactory.DEFAULT_SESSION_NAME, "sessionTimeout", "5m", "enableVNC", true,
+                        "enableVideo", true),
+                videoFactory.apply(new MutableCapabilities(), null).getCapability("selenoid:options"));
+        assertEquals(Map.of("name", CapabilityFactory.DEFAULT_SESSION_NAME, "sessionTimeout", "30m", "enableVNC", true,
+                        "enableVideo", false),
+                longSessionsFactory.apply(new MutableCapabilities(), null).getCapability("selenoid:options"));
+        assertEquals(asSent(videoFactory.apply(new MutableCapabilities(), null).getCapability(ChromeOptions.CAPABILITY)),
+                asSent(longSessionsFactory.apply(new MutableCapabilities(), null).getCapability(ChromeOptions.CAPABILITY)));
+        assertEquals(asSent(previous().getCapability(ChromeOptions.CAPABILITY)),
+                asSent(videoFactory.apply(new MutableCapabilities(), null).getCapability(ChromeOptions.CAPABILITY)));
+    }
+
+    private static Object asSent(Object capabilities) {
+        return JSON.toType(JSON.toJson(capabilities), Map.class);
+    }
+
+    /**
+     * The capabilities as {@code BeforeWebdriver} built them before {@link CapabilityFactory}.
+     */
+    private static MutableCapabilities previous() {
+        MutableCapabilities capabilities = new MutableCapabilities();
+        ChromeOptions options = new ChromeOptions();
+        HashMap<String, Object> chromeLocalStatePrefs = new HashMap<>();
+        List<String> experimentalFlags = new ArrayList<>();
+        experimentalFlags.add("same-site-by-default-cookies@2");
+        chromeLocalStatePrefs.put("browser.enabled_labs_experiments", experimentalFlags);
+        options.setExperimentalOption("localState", chromeLocalStatePrefs);
+        options.setAcceptInsecureCerts(true);
+        options.addArguments("--disable-web-security");
+        options.addArguments("--start-maximized");
+
+        LoggingPreferences logPrefs = new LoggingPreferences();
+        logPrefs.enable(LogType.PERFORMANCE, Level.ALL);
+        options.setCapability("goog:loggingPrefs", logPrefs);
+
+        Map<String, Object> selenoidOptions = new HashMap<>();
+        selenoidOptions.put("name", "Mock test");
+        selenoidOptions.put("sessionTimeout", "5m");
+        selenoidOptions.put("enableVNC", true);
+        selenoidOptions.put("enableVideo", false);
+        capabilities.setCapability("selenoid:options", selenoidOptions);
+
+        capabilities.setCapability(ChromeOptions.CAPABILITY, options);
+        capabilities.setCapability(CapabilityType.UNHANDLED_PROMPT_BEHAVIOUR, UnexpectedAlertBehaviour.IGNORE);
+        return capabilities;
+    }
+}
@@ -0,0 +1,72 @@
+package org.example.batch;
+
+import org.openqa.selenium.WebDriverException;
+
+/**
+ * Result of one command queued on a {@link CommandBatch}, available once the batch has been executed.
+ * A failed command does not affect the other commands in the same batch.
+ */
+public class BatchResult<T> {
+
+    private final String description;
+    private boolean completed;
+    private T value;
+    private String error;
+    private WebDriverException cause;
+
+    BatchResult(String description) {
+        this.description = description;
+    }
+
+    void complete(T value) {
+        this.value = value;
+        this.completed = true;
+    }
+
+    void fail(String error) {
+        this.error = error;
+        this.completed = true;
+    }
+
+    /**
+     * Fails the command because the call it was sent with failed.
+     */
+    void fail(WebDriverException cause) {
+        fail(cause.getMessage());
+        this.cause = cause;
+    }
+
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    /**
+     * @return {@code true} if the command ran without a script error
+     */
+    public boolean isSuccess() {
+        return completed && error == null;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    /**
+     * @throws IllegalStateException if the batch has not been executed yet
+     * @throws WebDriverException    if this command failed in the browser, or the call it was sent with failed
+     */
+    public T get() {
+        if (!completed) {
+            throw new IllegalStateException(description + " has not been executed, call CommandBatch.execute() first");
+        }
+        if (error != null) {
+            throw new WebDriverException(description + " failed: " + error, cause);
+        }
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return description + (!completed ? " pending" : error != null ? " failed: " + error : " = " + value);
+    }
+}
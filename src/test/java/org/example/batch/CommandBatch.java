@@ -0,0 +1,176 @@
+package org.example.batch;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.remote.codec.w3c.AtomScriptCache;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Queues local/session storage and element attribute commands and sends them to the browser as a single
+ * executeScript call, instead of one {@code /execute/sync} round trip per command.
+ * <pre>
+ * CommandBatch batch = CommandBatch.on(driver);
+ * BatchResult&lt;String&gt; token = batch.getLocalStorageItem("token");
+ * BatchResult&lt;String&gt; href = batch.getAttribute(link, "href");
+ * batch.execute();
+ * token.get();
+ * </pre>
+ * Commands run in the order they were queued and each gets its own result: a script error in one command
+ * is reported on its {@link BatchResult} only. If the combined call is rejected because one of the elements is
+ * stale, the browser has not run any of the commands, so they are sent again one by one and only the affected
+ * ones fail. Any other failure of the call, such as a timeout or a lost session, may come after some commands
+ * ran; those are not repeated, and every command of the batch fails with the cause.
+ */
+public class CommandBatch {
+
+    private static final org.slf4j.Logger log = LoggerFactory.getLogger(CommandBatch.class);
+
+    // Each operation is [type, storage, key or element, value or attribute name]; each result is [ok, value or error]
+    private static final String SCRIPT = "var operations = arguments[0], results = [];\n"
+            + "for (var i = 0; i < operations.length; i++) {\n"
+            + "  var op = operations[i], value = null;\n"
+            + "  try {\n"
+            // reading window.localStorage itself throws a SecurityError on opaque origins such as about:blank
+            + "    var storage = op[1] ? window[op[1]] : null;\n"
+            + "    switch (op[0]) {\n"
+            + "      case 'get': value = storage.getItem(op[2]); break;\n"
+            + "      case 'set': storage.setItem(op[2], op[3]); break;\n"
+            + "      case 'remove': value = storage.getItem(op[2]); storage.removeItem(op[2]); break;\n"
+            + "      case 'attribute': value = getAttribute(op[2], op[3]); break;\n"
+            + "      default: throw Error('Unknown batched command ' + op[0]);\n"
+            + "    }\n"
+            + "    results.push([true, value === undefined ? null : value]);\n"
+            + "  } catch (e) {\n"
+            + "    results.push([false, String(e && e.message ? e.message : e)]);\n"
+            + "  }\n"
+            + "}\n"
+            + "return results;";
+    // The getAttribute atom is about 40 KB, so it is only sent with batches that read attributes
+    private static final String ATTRIBUTE_SCRIPT = "var getAttribute = function() { "
+            + AtomScriptCache.script(AtomScriptCache.GET_ATTRIBUTE) + " };\n" + SCRIPT;
+
+    private static final String LOCAL_STORAGE = "localStorage";
+    private static final String SESSION_STORAGE = "sessionStorage";
+    private static final String ATTRIBUTE = "attribute";
+
+    private final JavascriptExecutor executor;
+    private final List<Operation> operations = new ArrayList<>();
+
+    public CommandBatch(JavascriptExecutor executor) {
+        this.executor = executor;
+    }
+
+    public static CommandBatch on(WebDriver driver) {
+        return new CommandBatch((JavascriptExecutor) driver);
+    }
+
+    public BatchResult<String> getLocalStorageItem(String key) {
+        return queue("getLocalStorageItem(" + key + ")", "get", LOCAL_STORAGE, key, null);
+    }
+
+    public BatchResult<Void> setLocalStorageItem(String key, String value) {
+        return queue("setLocalStorageItem(" + key + ")", "set", LOCAL_STORAGE, key, value);
+    }
+
+    public BatchResult<String> removeLocalStorageItem(String key) {
+        return queue("removeLocalStorageItem(" + key + ")", "remove", LOCAL_STORAGE, key, null);
+    }
+
+    public BatchResult<String> getSessionStorageItem(String key) {
+        return queue("getSessionStorageItem(" + key + ")", "get", SESSION_STORAGE, key, null);
+    }
+
+    public BatchResult<Void> setSessionStorageItem(String key, String value) {
+        return queue("setSessionStorageItem(" + key + ")", "set", SESSION_STORAGE, key, value);
+    }
+
+    public BatchResult<String> removeSessionStorageItem(String key) {
+        return queue("removeSessionStorageItem(" + key + ")", "remove", SESSION_STORAGE, key, null);
+    }
+
+    /**
+     * Same semantics as {@link WebElement#getAttribute(String)}, which uses the same atom.
+     */
+    public BatchResult<String> getAttribute(WebElement element, String name) {
+        return queue("getAttribute(" + name + ")", ATTRIBUTE, null, element, name);
+    }
+
+    public int size() {
+        return operations.size();
+    }
+
+    /**
+     * Sends every queued command and completes its result. The batch is empty afterwards and can be reused.
+     */
+    public void execute() {
+        if (operations.isEmpty()) {
+            return;
+        }
+        List<Operation> pending = new ArrayList<>(operations);
+        operations.clear();
+        try {
+            run(pending);
+            log.debug("Ran {} batched commands in one round trip", pending.size());
+        } catch (StaleElementReferenceException e) {
+            // rejected while the arguments were resolved, before the script started
+            log.debug("Batch of {} commands was rejected, retrying one by one: {}", pending.size(), e.getMessage());
+            for (Operation operation : pending) {
+                try {
+                    run(Collections.singletonList(operation));
+                } catch (WebDriverException single) {
+                    operation.result.fail(single);
+                }
+            }
+        } catch (WebDriverException e) {
+            log.debug("Batch of {} commands failed: {}", pending.size(), e.getMessage());
+            pending.forEach(operation -> operation.result.fail(e));
+        }
+    }
+
+    private void run(List<Operation> batch) {
+        List<List<Object>> arguments = new ArrayList<>(batch.size());
+        boolean readsAttributes = false;
+        for (Operation operation : batch) {
+            arguments.add(operation.arguments);
+            readsAttributes |= ATTRIBUTE.equals(operation.arguments.get(0));
+        }
+        Object response = executor.executeScript(readsAttributes ? ATTRIBUTE_SCRIPT : SCRIPT, arguments);
+        if (!(response instanceof List) || ((List<?>) response).size() != batch.size()) {
+            throw new WebDriverException("Unexpected response to batched commands: " + response);
+        }
+        List<?> results = (List<?>) response;
+        for (int i = 0; i < batch.size(); i++) {
+            List<?> result = (List<?>) results.get(i);
+            if (Boolean.TRUE.equals(result.get(0))) {
+                batch.get(i).result.complete(result.get(1));
+            } else {
+                batch.get(i).result.fail(String.valueOf(result.get(1)));
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> BatchResult<T> queue(String description, String type, String storage, Object target, String value) {
+        BatchResult<Object> result = new BatchResult<>(description);
+        operations.add(new Operation(Arrays.asList(type, storage, target, value), result));
+        return (BatchResult<T>) result;
+    }
+
+    private static class Operation {
+        private final List<Object> arguments;
+        private final BatchResult<Object> result;
+
+        Operation(List<Object> arguments, BatchResult<Object> result) {
+            this.arguments = arguments;
+            this.result = result;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package org.example.batch;
+
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriverException;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks when {@link CommandBatch} may send its commands again, with a browser that answers from a script of
+ * responses.
+ */
+class CommandBatchTest {
+
+    private final ScriptedBrowser browser = new ScriptedBrowser();
+    private final CommandBatch batch = new CommandBatch(browser);
+
+    @Test
+    void completesEveryCommandFromOneCall() {
+        browser.respond(List.of(List.of(true, "abc"), List.of(true, "42")));
+        BatchResult<String> token = batch.getLocalStorageItem("token");
+        BatchResult<String> removed = batch.removeSessionStorageItem("cart");
+
+        batch.execute();
+
+        assertEquals("abc", token.get());
+        assertEquals("42", removed.get());
+        assertEquals(List.of(2), browser.calls);
+        assertEquals(0, batch.size());
+    }
+
+    @Test
+    void reportsAScriptErrorOnItsCommandOnly() {
+        browser.respond(List.of(List.of(false, "storage is disabled"), List.of(true, "42")));
+        BatchResult<Void> set = batch.setLocalStorageItem("token", "abc");
+        BatchResult<String> get = batch.getLocalStorageItem("count");
+
+        batch.execute();
+
+        assertFalse(set.isSuccess());
+        assertEquals("storage is disabled", set.getError());
+        assertEquals("42", get.get());
+    }
+
+    @Test
+    void sendsTheCommandsOneByOneWhenAnElementIsStale() {
+        browser.fail(new StaleElementReferenceException("stale element reference"));
+        browser.respond(List.of(Arrays.asList(true, null)));
+        browser.fail(new StaleElementReferenceException("stale element reference"));
+        browser.respond(List.of(List.of(true, "abc")));
+        BatchResult<Void> set = batch.setLocalStorageItem("token", "abc");
+        BatchResult<String> stale = batch.getLocalStorageItem("stale");
+        BatchResult<String> get = batch.getLocalStorageItem("token");
+
+        batch.execute();
+
+        assertEquals(List.of(3, 1, 1, 1), browser.calls);
+        assertTrue(set.isSuccess());
+        assertThrows(WebDriverException.class, stale::get);
+        assertEquals("abc", get.get());
+    }
+
+    @Test
+    void failsEveryCommandWithoutRepeatingAnyWhenTheCallFails() {
+        TimeoutException timeout = new TimeoutException("script timeout");
+        browser.fail(timeout);
+        BatchResult<Void> set = batch.setLocalStorageItem("token", "abc");
+        BatchResult<String> removed = batch.removeLocalStorageItem("cart");
+
+        batch.execute();
+
+        assertEquals(List.of(2), browser.calls);
+        assertSame(timeout, assertThrows(WebDriverException.class, set::get).getCause());
+        assertSame(timeout, assertThrows(WebDriverException.class, removed::get).getCause());
+    }
+
+    @Test
+    void failsEveryCommandOnAnUnexpectedResponse() {
+        browser.respond(List.of(Arrays.asList(true, null)));
+        BatchResult<Void> set = batch.setLocalStorageItem("token", "abc");
+        BatchResult<String> removed = batch.removeLocalStorageItem("cart");
+
+        batch.execute();
+
+        assertEquals(List.of(2), browser.calls);
+        assertFalse(set.isSuccess());
+        assertFalse(removed.isSuccess());
+    }
+
+    private static class ScriptedBrowser implements JavascriptExecutor {
+
+        private final Deque<Object> responses = new ArrayDeque<>();
+        // number of commands sent with each call
+        private final List<Integer> calls = new ArrayList<>();
+
+        void respond(Object response) {
+            responses.add(response);
+        }
+
+        void fail(WebDriverException failure) {
+            responses.add(failure);
+        }
+
+        @Override
+        public Object executeScript(String script, Object... args) {
+            calls.add(((List<?>) args[0]).size());
+            Object response = responses.remove();
+            if (response instanceof WebDriverException) {
+                throw (WebDriverException) response;
+            }
+            return response;
+        }
+
+        @Override
+        public Object executeAsyncScript(String script, Object... args) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package org.example.discovery;
+
+import io.cucumber.core.gherkin.Feature;
+import io.cucumber.core.gherkin.FeatureParser;
+import io.cucumber.core.gherkin.Pickle;
+import io.cucumber.tagexpressions.Expression;
+import io.cucumber.tagexpressions.TagExpressionParser;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.ServiceLoader;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Counts the scenarios Cucumber will run from the feature files under {@code features} on the classpath: every
+ * example of an outline counts, and {@code cucumber.filter.tags} is applied. The files are parsed with the same
+ * Gherkin parser as Cucumber's, without loading the glue or matching steps, so that
+ * {@link org.example.runner.ShardedSuiteRunner} can size its forks without a discovery of the whole suite.
+ */
+public final class ScenarioCount {
+
+    private static final org.slf4j.Logger log = LoggerFactory.getLogger(ScenarioCount.class);
+
+    private static final String FEATURES = "features";
+    private static final String TAGS_PROPERTY = "cucumber.filter.tags";
+
+    private ScenarioCount() {
+    }
+
+    /**
+     * @param configuration the Cucumber settings of the run, for its tag filter
+     */
+    public static long count(ClassLoader classLoader, Properties configuration) throws IOException {
+        long started = System.nanoTime();
+        String tags = configuration.getProperty(TAGS_PROPERTY, "").trim();
+        Expression filter = tags.isEmpty() ? null : TagExpressionParser.parse(tags);
+        SortedMap<String, String> features = features(classLoader);
+        long scenarios = 0;
+        for (Map.Entry<String, String> feature : features.entrySet()) {
+            for (Pickle pickle : pickles(feature.getKey(), feature.getValue())) {
+                if (filter == null || filter.evaluate(pickle.getTags())) {
+                    scenarios++;
+                }
+            }
+        }
+        log.info("Counted {} scenarios in {} feature files in {} ms", scenarios, features.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        return scenarios;
+    }
+
+    private static List<Pickle> pickles(String resource, String source) {
+        try {
+            return Parser.INSTANCE.parse(URI.create("classpath:" + resource), source, UUID::randomUUID)
+                    .map(Feature::getPickles)
+                    .orElse(List.of());
+        } catch (RuntimeException e) {
+            // reported by the engine when it parses the file
+            log.warn("Unable to count the scenarios of {}", resource, e);
+            return List.of();
+        }
+    }
+
+    /**
+     * @return the content of every feature file on the classpath by resource name; the first one found wins
+     */
+    private static SortedMap<String, String> features(ClassLoader classLoader) throws IOException {
+        SortedMap<String, String> features = new TreeMap<>();
+        Enumeration<URL> urls = classLoader.getResources(FEATURES);
+        while (urls.hasMoreElements()) {
+            URL url = urls.nextElement();
+            try {
+                if ("file".equals(url.getProtocol())) {
+                    read(Paths.get(url.toURI()), features);
+                } else if ("jar".equals(url.getProtocol())) {
+                    String jar = url.getPath().substring(0, url.getPath().indexOf("!/"));
+                    try (FileSystem fileSystem = FileSystems.newFileSystem(Paths.get(new URI(jar)), (ClassLoader) null)) {
+                        read(fileSystem.getPath(FEATURES), features);
+                    }
+                }
+            } catch (URISyntaxException e) {
+                throw new IOException("Unable to read " + url, e);
+            }
+        }
+        return features;
+    }
+
+    private static void read(Path directory, SortedMap<String, String> features) throws IOException {
+        List<Path> files;
+        try (Stream<Path> paths = Files.walk(directory)) {
+            files = paths.filter(path -> path.toString().endsWith(".feature") && Files.isRegularFile(path))
+                    .collect(Collectors.toList());
+        }
+        for (Path file : files) {
+            String name = FEATURES + "/" + directory.relativize(file).toString().replace('\\', '/');
+            if (!features.containsKey(name)) {
+                features.put(name, Files.readString(file, StandardCharsets.UTF_8));
+            }
+        }
+    }
+
+    // the same parser Cucumber picks: the newest one on the classpath
+    private static final class Parser {
+        private static final FeatureParser INSTANCE = ServiceLoader.load(FeatureParser.class).stream()
+                .map(ServiceLoader.Provider::get)
+                .max(Comparator.comparing(FeatureParser::version))
+                .orElseThrow(() -> new IllegalStateException("No Gherkin parser on the classpath"));
+    }
+}
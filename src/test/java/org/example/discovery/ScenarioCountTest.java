@@ -0,0 +1,111 @@
+package org.example.discovery;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Counts the scenarios of feature files on a class path of their own.
+ */
+class ScenarioCountTest {
+
+    private static final String CHECKOUT = "@checkout\n"
+            + "Feature: Checkout\n"
+            + "\n"
+            + "  @smoke\n"
+            + "  Scenario: pay by card\n"
+            + "    When I run mock step in 1 seconds\n"
+            + "\n"
+            + "  @slow\n"
+            + "  Scenario Outline: pay in <currency>\n"
+            + "    When I run mock step in <seconds> seconds\n"
+            + "\n"
+            + "    Examples:\n"
+            + "      | currency | seconds |\n"
+            + "      | EUR      | 2       |\n"
+            + "      | USD      | 3       |\n"
+            + "\n"
+            + "    @smoke\n"
+            + "    Examples:\n"
+            + "      | currency | seconds |\n"
+            + "      | GBP      | 4       |\n";
+    private static final String SEARCH = "Feature: Search\n"
+            + "\n"
+            + "  Scenario: empty query\n"
+            + "    When I run mock step in 1 seconds\n";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void countsEveryScenarioAndExample() throws IOException {
+        write("features/checkout.feature", CHECKOUT);
+        write("features/nested/search.feature", SEARCH);
+
+        assertEquals(5, count(new Properties(), directory));
+    }
+
+    @Test
+    void appliesTheTagFilter() throws IOException {
+        write("features/checkout.feature", CHECKOUT);
+        write("features/search.feature", SEARCH);
+
+        assertEquals(2, count(tags("@smoke"), directory));
+        assertEquals(1, count(tags("@smoke and not @slow"), directory));
+        assertEquals(4, count(tags("@checkout"), directory));
+        assertEquals(1, count(tags("not @checkout"), directory));
+    }
+
+    @Test
+    void skipsFilesThatAreNotGherkin() throws IOException {
+        write("features/checkout.feature", CHECKOUT);
+        write("features/broken.feature", "Feature: Broken\n  Scenario: no steps\n    Given\n  Examples:\n");
+        write("features/notes.txt", SEARCH);
+
+        assertEquals(4, count(new Properties(), directory));
+    }
+
+    @Test
+    void readsFeatureFilesFromJars() throws IOException {
+        Path jar = directory.resolve("features.jar");
+        try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar))) {
+            out.putNextEntry(new JarEntry("features/"));
+            out.closeEntry();
+            out.putNextEntry(new JarEntry("features/search.feature"));
+            out.write(SEARCH.getBytes(StandardCharsets.UTF_8));
+            out.closeEntry();
+        }
+
+        assertEquals(1, count(new Properties(), jar));
+    }
+
+    private void write(String resource, String content) throws IOException {
+        Path file = directory.resolve(resource);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+    }
+
+    private static Properties tags(String expression) {
+        Properties configuration = new Properties();
+        configuration.setProperty("cucumber.filter.tags", expression);
+        return configuration;
+    }
+
+    // without the suite's own feature files, which the class path of the tests has too
+    private static long count(Properties configuration, Path classPath) throws IOException {
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[]{classPath.toUri().toURL()}, ClassLoader.getPlatformClassLoader())) {
+            return ScenarioCount.count(classLoader, configuration);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package org.example.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the bucket bounds {@link LatencyHistogram} reports percentiles from.
+ */
+class LatencyHistogramTest {
+
+    private final LatencyHistogram histogram = new LatencyHistogram();
+
+    @Test
+    void reportsNothingBeforeTheFirstValue() {
+        assertEquals(0, histogram.percentileMicros(0.5));
+        assertEquals(Map.of("count", 0L, "meanMs", 0.0, "p50Ms", 0.0, "p90Ms", 0.0, "p99Ms", 0.0, "maxMs", 0.0),
+                histogram.summary());
+    }
+
+    @Test
+    void keepsSmallValuesExact() {
+        histogram.record(3, TimeUnit.MICROSECONDS);
+        histogram.record(5, TimeUnit.MICROSECONDS);
+        histogram.record(7, TimeUnit.MICROSECONDS);
+
+        assertEquals(3, histogram.percentileMicros(0.0));
+        assertEquals(5, histogram.percentileMicros(0.5));
+        assertEquals(7, histogram.percentileMicros(1.0));
+    }
+
+    @Test
+    void reportsPercentilesWithinOneSixteenthAbove() {
+        for (int millis = 1; millis <= 100; millis++) {
+            histogram.record(millis, TimeUnit.MILLISECONDS);
+        }
+
+        assertWithinBucket(50_000, histogram.percentileMicros(0.50));
+        assertWithinBucket(90_000, histogram.percentileMicros(0.90));
+        assertWithinBucket(99_000, histogram.percentileMicros(0.99));
+        // never above the largest value recorded
+        assertEquals(100_000, histogram.percentileMicros(1.0));
+    }
+
+    @Test
+    void summarisesInMilliseconds() {
+        histogram.record(1, TimeUnit.MILLISECONDS);
+        histogram.record(3, TimeUnit.MILLISECONDS);
+        // a negative duration, from a clock stepping back, counts as 0
+        histogram.record(-5, TimeUnit.MILLISECONDS);
+
+        Map<String, Object> summary = histogram.summary();
+
+        assertEquals(3L, summary.get("count"));
+        assertEquals(1.333, summary.get("meanMs"));
+        // the upper bound of the bucket of 1 ms
+        assertEquals(1.023, summary.get("p50Ms"));
+        assertEquals(3.0, summary.get("maxMs"));
+        assertEquals(3_000, histogram.percentileMicros(0.99));
+    }
+
+    @Test
+    void placesEveryValueInTheBucketCoveringIt() {
+        for (long micros = 0; micros < 1L << 40; micros = micros * 3 / 2 + 1) {
+            int index = LatencyHistogram.index(micros);
+            assertTrue(LatencyHistogram.lowerBound(index) <= micros && micros < LatencyHistogram.lowerBound(index + 1),
+                    micros + " outside bucket " + index);
+        }
+    }
+
+    @Test
+    void countsEveryValueRecordedConcurrently() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> recorders = new ArrayList<>();
+            for (int thread = 0; thread < 8; thread++) {
+                recorders.add(executor.submit(() -> {
+                    for (int i = 1; i <= 10_000; i++) {
+                        histogram.record(i, TimeUnit.MICROSECONDS);
+                    }
+                }));
+            }
+            for (Future<?> recorder : recorders) {
+                recorder.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(80_000, histogram.count());
+        assertEquals(8L * 10_000 * 10_001 / 2, histogram.sumMicros());
+        assertEquals(10_000, histogram.maxMicros());
+    }
+
+    private static void assertWithinBucket(long expected, long actual) {
+        assertTrue(actual >= expected && actual <= expected + expected / 16, actual + " is not within 1/16 above " + expected);
+    }
+}
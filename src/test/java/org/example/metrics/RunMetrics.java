@@ -0,0 +1,132 @@
+package org.example.metrics;
+
+import org.example.session.BrowserSessionPool;
+import org.example.stub.StubWebDriverServer;
+import org.openqa.selenium.remote.codec.w3c.CommandCounts;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Live timings of the current run: a {@link LatencyHistogram} per step definition pattern and one for whole
+ * scenarios, how busy the scenario workers are, and how many WebDriver commands of each kind were sent.
+ * Filled in by {@link RunMetricsPlugin}; the worker count is reported by whichever runner or strategy sizes the pool,
+ * or else taken by the plugin from the engine's parallel configuration.
+ */
+public class RunMetrics {
+
+    private static final RunMetrics INSTANCE = new RunMetrics();
+
+    private final ConcurrentMap<String, LatencyHistogram> steps = new ConcurrentHashMap<>();
+    private final LatencyHistogram scenarios = new LatencyHistogram();
+    private final AtomicInteger activeScenarios = new AtomicInteger();
+    private final AtomicInteger peakActiveScenarios = new AtomicInteger();
+    private final LongSupplier nanoTime;
+    private volatile long startedNanos;
+    private volatile int workers;
+
+    private RunMetrics() {
+        this(System::nanoTime);
+    }
+
+    RunMetrics(LongSupplier nanoTime) {
+        this.nanoTime = nanoTime;
+        this.startedNanos = nanoTime.getAsLong();
+    }
+
+    public static RunMetrics instance() {
+        return INSTANCE;
+    }
+
+    public void runStarted() {
+        startedNanos = nanoTime.getAsLong();
+    }
+
+    /**
+     * Records the number of threads that run scenarios, used to report how saturated they are.
+     */
+    public void workers(int workers) {
+        this.workers = workers;
+    }
+
+    /**
+     * @return the number of threads that run scenarios, or 0 while no runner or strategy has reported it
+     */
+    public int workers() {
+        return workers;
+    }
+
+    public void scenarioStarted() {
+        int active = activeScenarios.incrementAndGet();
+        if (active > peakActiveScenarios.get()) {
+            peakActiveScenarios.accumulateAndGet(active, Math::max);
+        }
+    }
+
+    public void scenarioFinished(long nanos) {
+        activeScenarios.decrementAndGet();
+        scenarios.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void stepFinished(String pattern, long nanos) {
+        LatencyHistogram histogram = steps.get(pattern);
+        if (histogram == null) {
+            histogram = steps.computeIfAbsent(pattern, key -> new LatencyHistogram());
+        }
+        histogram.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public Map<String, Object> snapshot() {
+        long elapsedMicros = TimeUnit.NANOSECONDS.toMicros(nanoTime.getAsLong() - startedNanos);
+        int workerCount = workers;
+
+        Map<String, Object> pool = new LinkedHashMap<>();
+        pool.put("workers", workerCount);
+        pool.put("active", activeScenarios.get());
+        pool.put("peakActive", peakActiveScenarios.get());
+        if (workerCount > 0) {
+            pool.put("saturation", round((double) activeScenarios.get() / workerCount));
+            // share of the available worker time spent in finished scenarios
+            pool.put("utilisation", elapsedMicros == 0 ? 0.0 : round((double) scenarios.sumMicros() / ((double) elapsedMicros * workerCount)));
+        }
+
+        Map<String, Object> stepSummaries = new TreeMap<>();
+        steps.forEach((pattern, histogram) -> stepSummaries.put(pattern, histogram.summary()));
+
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("timestamp", Instant.now().toString());
+        snapshot.put("elapsedSeconds", TimeUnit.MICROSECONDS.toSeconds(elapsedMicros));
+        snapshot.put("workers", pool);
+        snapshot.put("scenarios", scenarios.summary());
+        snapshot.put("steps", stepSummaries);
+        snapshot.put("commands", CommandCounts.snapshot());
+        BrowserSessionPool sessionPool = BrowserSessionPool.instance();
+        if (sessionPool.isEnabled()) {
+            Map<String, Object> sessions = new LinkedHashMap<>();
+            sessions.put("created", sessionPool.created());
+            sessions.put("reused", sessionPool.reused());
+            sessions.put("evicted", sessionPool.evicted());
+            snapshot.put("sessionPool", sessions);
+        }
+        StubWebDriverServer stubServer = StubWebDriverServer.running();
+        if (stubServer != null) {
+            Map<String, Object> stub = new LinkedHashMap<>();
+            stub.put("openSessions", stubServer.openSessions());
+            stub.put("peakSessions", stubServer.peakSessions());
+            stub.put("requests", stubServer.requestCounts());
+            snapshot.put("stubServer", stub);
+        }
+        return snapshot;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+}
@@ -0,0 +1,208 @@
+package org.example.metrics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.PickleStepTestStep;
+import io.cucumber.plugin.event.TestCase;
+import io.cucumber.plugin.event.TestCaseFinished;
+import io.cucumber.plugin.event.TestCaseStarted;
+import io.cucumber.plugin.event.TestRunFinished;
+import io.cucumber.plugin.event.TestRunStarted;
+import io.cucumber.plugin.event.TestStepFinished;
+import net.thucydides.core.guice.Injectors;
+import net.thucydides.core.util.EnvironmentVariables;
+import org.example.scheduling.Shard;
+import org.openqa.selenium.json.Json;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cucumber plugin that feeds {@link RunMetrics} with step and scenario durations while the run is going, and
+ * publishes a JSON snapshot of them to {@code metrics.file} every {@code metrics.flush.interval} seconds and,
+ * when {@code metrics.http.port} is set, at {@code http://localhost:<port>/metrics}. In a sharded run each shard
+ * writes its own file and listens on the port offset by its index.
+ */
+public class RunMetricsPlugin implements ConcurrentEventListener {
+
+    private static final org.slf4j.Logger log = LoggerFactory.getLogger(RunMetricsPlugin.class);
+
+    private static final Json JSON = new Json();
+
+    private final boolean enabled;
+    private final Path file;
+    private final long flushIntervalSeconds;
+    private final int httpPort;
+
+    private final RunMetrics metrics = RunMetrics.instance();
+    private final Map<TestCase, Instant> started = new ConcurrentHashMap<>();
+    private ScheduledExecutorService flusher;
+    private HttpServer server;
+
+    public RunMetricsPlugin() {
+        EnvironmentVariables environmentVariables = Injectors.getInjector().getInstance(EnvironmentVariables.class);
+        this.enabled = environmentVariables.getPropertyAsBoolean("metrics.enabled", true);
+        this.file = Shard.current().file(Paths.get(environmentVariables.getProperty("metrics.file", "target/run-metrics.json")));
+        this.flushIntervalSeconds = environmentVariables.getPropertyAsInteger("metrics.flush.interval", 5);
+        this.httpPort = Shard.current().port(environmentVariables.getPropertyAsInteger("metrics.http.port", 0));
+    }
+
+    @Override
+    public void setEventPublisher(EventPublisher publisher) {
+        if (!enabled) {
+            return;
+        }
+        publisher.registerHandlerFor(TestRunStarted.class, event -> start());
+        publisher.registerHandlerFor(TestCaseStarted.class, this::testCaseStarted);
+        publisher.registerHandlerFor(TestStepFinished.class, this::testStepFinished);
+        publisher.registerHandlerFor(TestCaseFinished.class, this::testCaseFinished);
+        publisher.registerHandlerFor(TestRunFinished.class, event -> stop());
+    }
+
+    private void testCaseStarted(TestCaseStarted event) {
+        started.put(event.getTestCase(), event.getInstant());
+        metrics.scenarioStarted();
+    }
+
+    private void testStepFinished(TestStepFinished event) {
+        if (event.getTestStep() instanceof PickleStepTestStep) {
+            String pattern = ((PickleStepTestStep) event.getTestStep()).getPattern();
+            metrics.stepFinished(pattern, event.getResult().getDuration().toNanos());
+        }
+    }
+
+    private void testCaseFinished(TestCaseFinished event) {
+        Instant start = started.remove(event.getTestCase());
+        metrics.scenarioFinished(start == null ? 0 : Duration.between(start, event.getInstant()).toNanos());
+    }
+
+    private void start() {
+        metrics.runStarted();
+        if (metrics.workers() == 0) {
+            try {
+                metrics.workers(configuredWorkers(parallelConfiguration()));
+            } catch (IOException | RuntimeException e) {
+                log.warn("Unable to read the parallel configuration, no saturation will be reported", e);
+            }
+        }
+        if (flushIntervalSeconds > 0) {
+            flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "run-metrics");
+                thread.setDaemon(true);
+                return thread;
+            });
+            flusher.scheduleWithFixedDelay(this::flush, flushIntervalSeconds, flushIntervalSeconds, TimeUnit.SECONDS);
+            log.info("Writing run metrics to {} every {} s", file, flushIntervalSeconds);
+        }
+        if (httpPort > 0) {
+            try {
+                server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), httpPort), 0);
+                server.createContext("/metrics", this::serve);
+                server.start();
+                log.info("Serving run metrics at http://localhost:{}/metrics", httpPort);
+            } catch (IOException e) {
+                log.warn("Unable to serve run metrics on port {}", httpPort, e);
+            }
+        }
+    }
+
+    private void stop() {
+        if (flusher != null) {
+            flusher.shutdownNow();
+            // a flush still running would otherwise replace the final snapshot with an older one
+            try {
+                if (!flusher.awaitTermination(1, TimeUnit.MINUTES)) {
+                    log.warn("Run metrics to {} still being written", file);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (server != null) {
+            server.stop(0);
+        }
+        flush();
+    }
+
+    private void flush() {
+        Path temporary = null;
+        try {
+            Path directory = file.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+            Files.write(temporary, JSON.toJson(metrics.snapshot()).getBytes(StandardCharsets.UTF_8));
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Unable to write run metrics to {}", file, e);
+        } finally {
+            if (temporary != null) {
+                try {
+                    Files.deleteIfExists(temporary);
+                } catch (IOException e) {
+                    log.debug("Unable to delete {}", temporary, e);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the number of threads the Cucumber engine runs scenarios on with this configuration, as the fixed
+     * and dynamic strategies size them, or 0 for a custom strategy, which reports its own
+     */
+    static int configuredWorkers(Properties configuration) {
+        if (!Boolean.parseBoolean(configuration.getProperty("cucumber.execution.parallel.enabled", "false").trim())) {
+            return 1;
+        }
+        String strategy = configuration.getProperty("cucumber.execution.parallel.config.strategy", "dynamic");
+        switch (strategy.trim().toLowerCase(Locale.ROOT)) {
+            case "fixed":
+                return Integer.parseInt(configuration.getProperty("cucumber.execution.parallel.config.fixed.parallelism").trim());
+            case "dynamic":
+                double factor = Double.parseDouble(configuration.getProperty("cucumber.execution.parallel.config.dynamic.factor", "1").trim());
+                return Math.max(1, (int) (factor * Runtime.getRuntime().availableProcessors()));
+            default:
+                return 0;
+        }
+    }
+
+    // junit-platform.properties overridden by system properties, as the engine reads them
+    private static Properties parallelConfiguration() throws IOException {
+        Properties configuration = new Properties();
+        try (InputStream stream = RunMetricsPlugin.class.getClassLoader().getResourceAsStream("junit-platform.properties")) {
+            if (stream != null) {
+                configuration.load(stream);
+            }
+        }
+        configuration.putAll(System.getProperties());
+        return configuration;
+    }
+
+    private void serve(HttpExchange exchange) throws IOException {
+        byte[] body = JSON.toJson(metrics.snapshot()).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", Json.JSON_UTF_8);
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream response = exchange.getResponseBody()) {
+            response.write(body);
+        }
+    }
+}
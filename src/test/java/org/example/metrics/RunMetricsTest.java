@@ -0,0 +1,93 @@
+package org.example.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Checks the pool figures of a {@link RunMetrics} snapshot on a clock that only moves when told to, and how
+ * {@link RunMetricsPlugin} sizes the pool from the engine's parallel configuration.
+ */
+class RunMetricsTest {
+
+    private long nanos;
+    private final RunMetrics metrics = new RunMetrics(() -> nanos);
+
+    @Test
+    void reportsSaturationAndUtilisationOfTheWorkers() {
+        metrics.runStarted();
+        metrics.workers(4);
+        for (int scenario = 0; scenario < 3; scenario++) {
+            metrics.scenarioStarted();
+        }
+        metrics.scenarioFinished(TimeUnit.SECONDS.toNanos(6));
+        metrics.scenarioStarted();
+        metrics.scenarioFinished(TimeUnit.SECONDS.toNanos(4));
+        nanos += TimeUnit.SECONDS.toNanos(10);
+
+        Map<String, Object> snapshot = metrics.snapshot();
+        Map<?, ?> pool = (Map<?, ?>) snapshot.get("workers");
+
+        assertEquals(10L, snapshot.get("elapsedSeconds"));
+        assertEquals(4, pool.get("workers"));
+        assertEquals(2, pool.get("active"));
+        assertEquals(3, pool.get("peakActive"));
+        assertEquals(0.5, pool.get("saturation"));
+        // 10 s of finished scenarios out of 4 workers x 10 s
+        assertEquals(0.25, pool.get("utilisation"));
+        assertEquals(2L, ((Map<?, ?>) snapshot.get("scenarios")).get("count"));
+    }
+
+    @Test
+    void leavesOutSaturationWhileTheWorkersAreUnknown() {
+        metrics.scenarioStarted();
+
+        Map<?, ?> pool = (Map<?, ?>) metrics.snapshot().get("workers");
+
+        assertEquals(0, pool.get("workers"));
+        assertFalse(pool.containsKey("saturation"));
+        assertFalse(pool.containsKey("utilisation"));
+    }
+
+    @Test
+    void groupsStepsByPattern() {
+        metrics.stepFinished("I open the {string} page", TimeUnit.MILLISECONDS.toNanos(20));
+        metrics.stepFinished("I open the {string} page", TimeUnit.MILLISECONDS.toNanos(40));
+        metrics.stepFinished("I log in", TimeUnit.MILLISECONDS.toNanos(5));
+
+        Map<?, ?> steps = (Map<?, ?>) metrics.snapshot().get("steps");
+
+        assertEquals(2L, ((Map<?, ?>) steps.get("I open the {string} page")).get("count"));
+        assertEquals(30.0, ((Map<?, ?>) steps.get("I open the {string} page")).get("meanMs"));
+        assertEquals(1L, ((Map<?, ?>) steps.get("I log in")).get("count"));
+    }
+
+    @Test
+    void sizesThePoolAsTheEngineDoes() {
+        assertEquals(1, RunMetricsPlugin.configuredWorkers(configuration()));
+        assertEquals(50, RunMetricsPlugin.configuredWorkers(configuration(
+                "cucumber.execution.parallel.enabled", "true",
+                "cucumber.execution.parallel.config.strategy", "fixed",
+                "cucumber.execution.parallel.config.fixed.parallelism", "50")));
+        assertEquals(Runtime.getRuntime().availableProcessors() * 2, RunMetricsPlugin.configuredWorkers(configuration(
+                "cucumber.execution.parallel.enabled", "true",
+                "cucumber.execution.parallel.config.dynamic.factor", "2")));
+        // a custom strategy reports its own
+        assertEquals(0, RunMetricsPlugin.configuredWorkers(configuration(
+                "cucumber.execution.parallel.enabled", "true",
+                "cucumber.execution.parallel.config.strategy", "custom")));
+    }
+
+    private static Properties configuration(String... entries) {
+        Properties configuration = new Properties();
+        for (int i = 0; i < entries.length; i += 2) {
+            configuration.setProperty(entries[i], entries[i + 1]);
+        }
+        return configuration;
+    }
+}
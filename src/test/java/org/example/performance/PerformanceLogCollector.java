@@ -0,0 +1,186 @@
+package org.example.performance;
+
+import net.thucydides.core.guice.Injectors;
+import net.thucydides.core.util.EnvironmentVariables;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.logging.LogEntry;
+import org.openqa.selenium.logging.LogType;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Drains Chrome's {@link LogType#PERFORMANCE} log while a scenario runs and turns the network events into
+ * per-request timings. Each drain only fetches the entries logged since the previous one, events outside
+ * {@code performance.log.events} are skipped before parsing, and at most {@code performance.log.max.requests}
+ * requests are kept, so memory stays bounded however long the scenario is.
+ */
+public class PerformanceLogCollector {
+
+    private static final org.slf4j.Logger log = LoggerFactory.getLogger(PerformanceLogCollector.class);
+
+    private static final String DEFAULT_EVENTS = "Network.requestWillBeSent,Network.responseReceived,"
+            + "Network.loadingFinished,Network.loadingFailed,Page.domContentEventFired,Page.loadEventFired";
+    private static final String METHOD_FIELD = "\"method\":\"";
+    private static final Json JSON = new Json();
+
+    private final boolean enabled;
+    private final Set<String> events;
+    private final int maxRequests;
+
+    private final Map<String, RequestTiming> inFlight;
+    private final Deque<RequestTiming> completed = new ArrayDeque<>();
+    private long droppedRequests;
+    private long totalRequests;
+    private long totalTransferBytes;
+    private int pageLoads;
+    private boolean unsupported;
+
+    public PerformanceLogCollector(boolean enabled, Set<String> events, int maxRequests) {
+        this.enabled = enabled;
+        this.events = events;
+        this.maxRequests = maxRequests;
+        this.inFlight = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, RequestTiming> eldest) {
+                if (size() > PerformanceLogCollector.this.maxRequests) {
+                    droppedRequests++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public static PerformanceLogCollector fromEnvironment() {
+        EnvironmentVariables environmentVariables = Injectors.getInjector().getInstance(EnvironmentVariables.class);
+        String events = environmentVariables.getProperty("performance.log.events", DEFAULT_EVENTS);
+        return new PerformanceLogCollector(
+                environmentVariables.getPropertyAsBoolean("performance.log.enabled", false),
+                Collections.unmodifiableSet(new HashSet<>(Arrays.asList(events.split("\\s*,\\s*")))),
+                environmentVariables.getPropertyAsInteger("performance.log.max.requests", 500));
+    }
+
+    public boolean isEnabled() {
+        return enabled && !unsupported;
+    }
+
+    /**
+     * Fetches and processes the performance log entries recorded since the last call.
+     */
+    public void drain(WebDriver driver) {
+        if (!isEnabled()) {
+            return;
+        }
+        try {
+            for (LogEntry entry : driver.manage().logs().get(LogType.PERFORMANCE)) {
+                accept(entry.getMessage());
+            }
+        } catch (WebDriverException e) {
+            unsupported = true;
+            log.debug("Performance log is not available, collection disabled for this scenario", e);
+        }
+    }
+
+    void accept(String message) {
+        String method = methodOf(message);
+        if (method == null || !events.contains(method)) {
+            return;
+        }
+        Map<String, Object> event = asMap(JSON.<Map<String, Object>>toType(message, Json.MAP_TYPE).get("message"));
+        Map<String, Object> params = asMap(event.get("params"));
+        switch (method) {
+            case "Network.requestWillBeSent":
+                Map<String, Object> request = asMap(params.get("request"));
+                String requestId = (String) params.get("requestId");
+                inFlight.put(requestId, new RequestTiming(requestId,
+                        (String) request.get("method"), (String) request.get("url"), number(params.get("timestamp"))));
+                break;
+            case "Network.responseReceived":
+                RequestTiming responded = inFlight.get((String) params.get("requestId"));
+                if (responded != null) {
+                    Map<String, Object> response = asMap(params.get("response"));
+                    Map<String, Object> timing = asMap(response.get("timing"));
+                    double ttfb = timing.isEmpty() ? -1 : number(timing.get("receiveHeadersEnd")) - number(timing.get("sendStart"));
+                    responded.responseReceived((long) number(response.get("status")), ttfb);
+                }
+                break;
+            case "Network.loadingFinished":
+                RequestTiming finished = inFlight.remove((String) params.get("requestId"));
+                if (finished != null) {
+                    finished.finished(number(params.get("timestamp")), (long) number(params.get("encodedDataLength")));
+                    complete(finished);
+                }
+                break;
+            case "Network.loadingFailed":
+                RequestTiming failed = inFlight.remove((String) params.get("requestId"));
+                if (failed != null) {
+                    failed.failed(number(params.get("timestamp")), String.valueOf(params.get("errorText")));
+                    complete(failed);
+                }
+                break;
+            case "Page.loadEventFired":
+                pageLoads++;
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void complete(RequestTiming timing) {
+        totalRequests++;
+        if (timing.getTransferBytes() > 0) {
+            totalTransferBytes += timing.getTransferBytes();
+        }
+        completed.addLast(timing);
+        if (completed.size() > maxRequests) {
+            completed.removeFirst();
+            droppedRequests++;
+        }
+    }
+
+    /**
+     * @return a plain-text report of the collected requests, or {@code null} if nothing was collected
+     */
+    public String summary() {
+        if (totalRequests == 0 && pageLoads == 0) {
+            return null;
+        }
+        StringBuilder summary = new StringBuilder()
+                .append(String.format("%d requests, %d bytes transferred, %d page loads", totalRequests, totalTransferBytes, pageLoads));
+        if (droppedRequests > 0) {
+            summary.append(String.format(" (only the last %d requests are listed)", completed.size()));
+        }
+        summary.append(System.lineSeparator());
+        completed.forEach(timing -> summary.append(timing).append(System.lineSeparator()));
+        return summary.toString();
+    }
+
+    private static String methodOf(String message) {
+        int start = message.indexOf(METHOD_FIELD);
+        if (start < 0) {
+            return null;
+        }
+        start += METHOD_FIELD.length();
+        int end = message.indexOf('"', start);
+        return end < 0 ? null : message.substring(start, end);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> asMap(Object value) {
+        return value instanceof Map ? (Map<String, Object>) value : Collections.emptyMap();
+    }
+
+    private static double number(Object value) {
+        return value instanceof Number ? ((Number) value).doubleValue() : -1;
+    }
+}
@@ -0,0 +1,110 @@
+package org.example.performance;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Feeds {@link PerformanceLogCollector} performance log messages in the form chromedriver returns them.
+ */
+class PerformanceLogCollectorTest {
+
+    private static final Set<String> EVENTS = Set.of("Network.requestWillBeSent", "Network.responseReceived",
+            "Network.loadingFinished", "Network.loadingFailed", "Page.loadEventFired");
+
+    private final PerformanceLogCollector collector = new PerformanceLogCollector(true, EVENTS, 10);
+
+    @Test
+    void timesARequestFromItsNetworkEvents() {
+        collector.accept(requestWillBeSent("1000.1", "POST", "https://example.org/api/login", 10.0));
+        collector.accept(responseReceived("1000.1", 200, 2.5, 42.5));
+        collector.accept(loadingFinished("1000.1", 10.25, 1536));
+        collector.accept(event("Page.loadEventFired", "{\"timestamp\":10.5}"));
+
+        assertEquals("1 requests, 1536 bytes transferred, 1 page loads" + System.lineSeparator()
+                        + "200 POST https://example.org/api/login ttfb=40.0ms size=1536B total=250.0ms" + System.lineSeparator(),
+                collector.summary());
+    }
+
+    @Test
+    void reportsAFailedRequest() {
+        collector.accept(requestWillBeSent("7", "GET", "https://example.org/missing.js", 3.0));
+        collector.accept(event("Network.loadingFailed",
+                "{\"requestId\":\"7\",\"timestamp\":3.1,\"errorText\":\"net::ERR_NAME_NOT_RESOLVED\"}"));
+
+        String summary = collector.summary();
+
+        assertTrue(summary.startsWith("1 requests, 0 bytes transferred, 0 page loads"), summary);
+        assertTrue(summary.contains("FAILED net::ERR_NAME_NOT_RESOLVED GET https://example.org/missing.js"), summary);
+    }
+
+    @Test
+    void readsTheEventNameBeforeTheRequestMethod() {
+        // the request's own "method" comes after the event's, and must not be taken for it
+        collector.accept(requestWillBeSent("1", "GET", "https://example.org/", 1.0));
+        collector.accept(loadingFinished("1", 1.5, 10));
+
+        assertTrue(collector.summary().contains("GET https://example.org/"), collector.summary());
+    }
+
+    @Test
+    void skipsEventsNotConfiguredAndMessagesWithoutAMethod() {
+        PerformanceLogCollector requestsOnly = new PerformanceLogCollector(true, Set.of("Network.requestWillBeSent"), 10);
+
+        requestsOnly.accept(requestWillBeSent("1", "GET", "https://example.org/", 1.0));
+        // not configured, so the request never completes
+        requestsOnly.accept(loadingFinished("1", 1.5, 10));
+        requestsOnly.accept(event("Page.loadEventFired", "{}"));
+        requestsOnly.accept("{\"message\":{\"params\":{}},\"webview\":\"A1\"}");
+        requestsOnly.accept("{\"message\":{\"method\":\"Network.requestWill");
+
+        assertNull(requestsOnly.summary());
+    }
+
+    @Test
+    void ignoresEventsOfRequestsNotSeenStarting() {
+        collector.accept(responseReceived("9", 200, 1, 2));
+        collector.accept(loadingFinished("9", 2.0, 100));
+
+        assertNull(collector.summary());
+    }
+
+    @Test
+    void keepsOnlyTheLastRequests() {
+        PerformanceLogCollector bounded = new PerformanceLogCollector(true, EVENTS, 2);
+        for (int id = 1; id <= 3; id++) {
+            bounded.accept(requestWillBeSent(String.valueOf(id), "GET", "https://example.org/" + id, id));
+            bounded.accept(loadingFinished(String.valueOf(id), id + 0.1, 100));
+        }
+
+        String summary = bounded.summary();
+
+        assertTrue(summary.startsWith("3 requests, 300 bytes transferred, 0 page loads (only the last 2 requests are listed)"), summary);
+        assertFalse(summary.contains("https://example.org/1 "), summary);
+        assertTrue(summary.contains("https://example.org/3 "), summary);
+    }
+
+    private static String requestWillBeSent(String requestId, String method, String url, double timestamp) {
+        return event("Network.requestWillBeSent", "{\"requestId\":\"" + requestId + "\",\"request\":{\"method\":\"" + method
+                + "\",\"url\":\"" + url + "\",\"headers\":{}},\"timestamp\":" + timestamp + ",\"type\":\"XHR\"}");
+    }
+
+    private static String responseReceived(String requestId, long status, double sendStart, double receiveHeadersEnd) {
+        return event("Network.responseReceived", "{\"requestId\":\"" + requestId + "\",\"response\":{\"status\":" + status
+                + ",\"timing\":{\"sendStart\":" + sendStart + ",\"receiveHeadersEnd\":" + receiveHeadersEnd + "}}}");
+    }
+
+    private static String loadingFinished(String requestId, double timestamp, long encodedDataLength) {
+        return event("Network.loadingFinished", "{\"requestId\":\"" + requestId + "\",\"timestamp\":" + timestamp
+                + ",\"encodedDataLength\":" + encodedDataLength + "}");
+    }
+
+    private static String event(String method, String params) {
+        return "{\"message\":{\"method\":\"" + method + "\",\"params\":" + params + "},\"webview\":\"A1\"}";
+    }
+}
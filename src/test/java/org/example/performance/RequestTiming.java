@@ -0,0 +1,80 @@
+package org.example.performance;
+
+/**
+ * Timing of a single network request reconstructed from Chrome's DevTools {@code Network.*} events.
+ */
+public class RequestTiming {
+
+    private final String requestId;
+    private final String method;
+    private final String url;
+    private final double startedAt;
+    private long status = -1;
+    private double ttfbMillis = -1;
+    private double finishedAt = -1;
+    private long transferBytes = -1;
+    private String failure;
+
+    RequestTiming(String requestId, String method, String url, double startedAt) {
+        this.requestId = requestId;
+        this.method = method;
+        this.url = url;
+        this.startedAt = startedAt;
+    }
+
+    void responseReceived(long status, double ttfbMillis) {
+        this.status = status;
+        this.ttfbMillis = ttfbMillis;
+    }
+
+    void finished(double finishedAt, long transferBytes) {
+        this.finishedAt = finishedAt;
+        this.transferBytes = transferBytes;
+    }
+
+    void failed(double finishedAt, String failure) {
+        this.finishedAt = finishedAt;
+        this.failure = failure;
+    }
+
+    public String getRequestId() {
+        return requestId;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public long getStatus() {
+        return status;
+    }
+
+    /**
+     * @return time from sending the request to receiving the response headers, or -1 if unknown
+     */
+    public double getTtfbMillis() {
+        return ttfbMillis;
+    }
+
+    /**
+     * @return encoded bytes received for the request, or -1 if it did not finish
+     */
+    public long getTransferBytes() {
+        return transferBytes;
+    }
+
+    public double getDurationMillis() {
+        return finishedAt < 0 ? -1 : (finishedAt - startedAt) * 1000;
+    }
+
+    public boolean isFailed() {
+        return failure != null;
+    }
+
+    @Override
+    public String toString() {
+        String outcome = failure != null ? "FAILED " + failure : String.valueOf(status);
+        return String.format("%s %s %s ttfb=%.1fms size=%dB total=%.1fms",
+                outcome, method, url, ttfbMillis, transferBytes, getDurationMillis());
+    }
+}
@@ -0,0 +1,102 @@
+package org.example.reporting;
+
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonOutput;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compact outcome of one finished scenario, stored as a single JSON line in the scenario records file.
+ */
+public class ScenarioRecord {
+
+    private static final Json JSON = new Json();
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final String id;
+    private final String feature;
+    private final String scenario;
+    private final String status;
+    private final long startedAt;
+    private final long durationMillis;
+    private final String error;
+
+    public ScenarioRecord(String id, String feature, String scenario, String status, long startedAt, long durationMillis, String error) {
+        this.id = id;
+        this.feature = feature;
+        this.scenario = scenario;
+        this.status = status;
+        this.startedAt = startedAt;
+        this.durationMillis = durationMillis;
+        this.error = abbreviate(error);
+    }
+
+    public static ScenarioRecord fromJson(String line) {
+        Map<String, Object> fields = JSON.toType(line, Json.MAP_TYPE);
+        return new ScenarioRecord((String) fields.get("id"), (String) fields.get("feature"), (String) fields.get("scenario"),
+                (String) fields.get("status"), ((Number) fields.get("startedAt")).longValue(),
+                ((Number) fields.get("durationMillis")).longValue(), (String) fields.get("error"));
+    }
+
+    public String toJson() {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("id", id);
+        fields.put("feature", feature);
+        fields.put("scenario", scenario);
+        fields.put("status", status);
+        fields.put("startedAt", startedAt);
+        fields.put("durationMillis", durationMillis);
+        if (error != null) {
+            fields.put("error", error);
+        }
+        StringBuilder line = new StringBuilder();
+        try (JsonOutput output = JSON.newOutput(line)) {
+            output.setPrettyPrint(false).write(fields);
+        }
+        return line.toString();
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getFeature() {
+        return feature;
+    }
+
+    public String getScenario() {
+        return scenario;
+    }
+
+    /**
+     * @return the Cucumber status name, e.g. {@code PASSED} or {@code FAILED}
+     */
+    public String getStatus() {
+        return status;
+    }
+
+    public long getStartedAt() {
+        return startedAt;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    /**
+     * @return the first line of the failure message, or {@code null}
+     */
+    public String getError() {
+        return error;
+    }
+
+    private static String abbreviate(String error) {
+        if (error == null) {
+            return null;
+        }
+        int newline = error.indexOf('\n');
+        String firstLine = newline < 0 ? error : error.substring(0, newline);
+        return firstLine.length() <= MAX_ERROR_LENGTH ? firstLine : firstLine.substring(0, MAX_ERROR_LENGTH) + "...";
+    }
+}
@@ -0,0 +1,173 @@
+package org.example.reporting;
+
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.Node;
+import io.cucumber.plugin.event.Result;
+import io.cucumber.plugin.event.TestCase;
+import io.cucumber.plugin.event.TestCaseFinished;
+import io.cucumber.plugin.event.TestCaseStarted;
+import io.cucumber.plugin.event.TestRunFinished;
+import io.cucumber.plugin.event.TestRunStarted;
+import io.cucumber.plugin.event.TestSourceParsed;
+import net.thucydides.core.guice.Injectors;
+import net.thucydides.core.util.EnvironmentVariables;
+import org.example.scheduling.ScenarioDurations;
+import org.example.scheduling.Shard;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cucumber plugin, configured next to {@code SerenityReporterParallel}, that appends a compact
+ * {@link ScenarioRecord} to {@code scenario-records.jsonl} in the Serenity output directory as soon as each
+ * scenario finishes. While the run is going a partial {@code streaming-summary.html} is rebuilt from the records
+ * every {@code reporting.streaming.partial.interval} seconds, and the final one is written when the run finishes.
+ * The {@code streaming-report} Maven profile uses this report instead of the {@code aggregate} goal. In a sharded
+ * run both files get a per-shard name and {@link org.example.runner.ShardedSuiteRunner} merges them.
+ */
+public class ScenarioRecordWriter implements ConcurrentEventListener {
+
+    private static final org.slf4j.Logger log = LoggerFactory.getLogger(ScenarioRecordWriter.class);
+
+    public static final String RECORDS_FILE = "scenario-records.jsonl";
+    public static final String REPORT_FILE = "streaming-summary.html";
+
+    private final boolean enabled;
+    private final Path records;
+    private final Path report;
+    private final long partialIntervalSeconds;
+
+    private final Map<URI, String> featureNames = new ConcurrentHashMap<>();
+    private final Map<TestCase, Instant> started = new ConcurrentHashMap<>();
+    private BufferedWriter writer;
+    private ScheduledExecutorService partialReports;
+
+    public ScenarioRecordWriter() {
+        EnvironmentVariables environmentVariables = Injectors.getInjector().getInstance(EnvironmentVariables.class);
+        Path outputDirectory = Paths.get(environmentVariables.getProperty("serenity.outputDirectory", "target/site/serenity"));
+        this.enabled = environmentVariables.getPropertyAsBoolean("reporting.streaming.enabled", true);
+        this.records = outputDirectory.resolve(Shard.current().fileName(RECORDS_FILE));
+        this.report = outputDirectory.resolve(Shard.current().fileName(REPORT_FILE));
+        this.partialIntervalSeconds = environmentVariables.getPropertyAsInteger("reporting.streaming.partial.interval", 30);
+    }
+
+    @Override
+    public void setEventPublisher(EventPublisher publisher) {
+        if (!enabled) {
+            return;
+        }
+        publisher.registerHandlerFor(TestRunStarted.class, event -> open());
+        publisher.registerHandlerFor(TestSourceParsed.class, this::testSourceParsed);
+        publisher.registerHandlerFor(TestCaseStarted.class, event -> started.put(event.getTestCase(), event.getInstant()));
+        publisher.registerHandlerFor(TestCaseFinished.class, this::testCaseFinished);
+        publisher.registerHandlerFor(TestRunFinished.class, event -> close());
+    }
+
+    private void testSourceParsed(TestSourceParsed event) {
+        event.getNodes().stream()
+                .filter(Node.Feature.class::isInstance)
+                .findFirst()
+                .flatMap(Node::getName)
+                .ifPresent(name -> featureNames.put(event.getUri(), name));
+    }
+
+    private void testCaseFinished(TestCaseFinished event) {
+        TestCase testCase = event.getTestCase();
+        Instant start = started.remove(testCase);
+        if (start == null) {
+            start = event.getInstant();
+        }
+        Result result = event.getResult();
+        ScenarioRecord record = new ScenarioRecord(
+                ScenarioDurations.key(testCase.getUri(), testCase.getLocation().getLine()),
+                featureNames.getOrDefault(testCase.getUri(), testCase.getUri().toString()),
+                testCase.getName(),
+                result.getStatus().name(),
+                start.toEpochMilli(),
+                Duration.between(start, event.getInstant()).toMillis(),
+                result.getError() == null ? null : String.valueOf(result.getError().getMessage()));
+        append(record.toJson());
+    }
+
+    private synchronized void open() {
+        try {
+            Files.createDirectories(records.getParent());
+            writer = Files.newBufferedWriter(records, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            log.warn("Unable to write scenario records to {}", records, e);
+            return;
+        }
+        if (partialIntervalSeconds > 0) {
+            partialReports = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "partial-report");
+                thread.setDaemon(true);
+                return thread;
+            });
+            partialReports.scheduleWithFixedDelay(() -> writeReport(partialIntervalSeconds), partialIntervalSeconds, partialIntervalSeconds, TimeUnit.SECONDS);
+        }
+        log.info("Streaming scenario records to {}", records);
+    }
+
+    // Each record is flushed as a whole line so that partial reports only ever see complete records
+    private synchronized void append(String line) {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.write(line);
+            writer.newLine();
+            writer.flush();
+        } catch (IOException e) {
+            log.warn("Unable to write scenario record to {}", records, e);
+        }
+    }
+
+    private void close() {
+        if (partialReports != null) {
+            partialReports.shutdownNow();
+            // a partial report still being written would otherwise replace the final one
+            try {
+                if (!partialReports.awaitTermination(1, TimeUnit.MINUTES)) {
+                    log.warn("Partial report to {} still being written", report);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        synchronized (this) {
+            if (writer == null) {
+                return;
+            }
+            try {
+                writer.close();
+            } catch (IOException e) {
+                log.warn("Unable to close {}", records, e);
+            }
+            writer = null;
+        }
+        writeReport(0);
+        log.info("Wrote test results summary to {}", report);
+    }
+
+    private void writeReport(long refreshSeconds) {
+        try {
+            StreamingReportAggregator.aggregate(records, report, refreshSeconds);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Unable to write {} report to {}", refreshSeconds > 0 ? "partial" : "final", report, e);
+        }
+    }
+}
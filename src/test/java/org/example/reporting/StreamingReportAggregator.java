@@ -0,0 +1,210 @@
+package org.example.reporting;
+
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+
+/**
+ * Builds a single-page HTML summary from the scenario records file in one pass. Only per-feature and per-status
+ * counters, the first {@value #MAX_FAILURES} failures and the {@value #SLOWEST} slowest scenarios are kept in
+ * memory, so the cost does not grow with the size of the suite. Records that cannot be parsed, such as a line
+ * still being written while the run is in progress, are skipped.
+ * <p>
+ * {@link ScenarioRecordWriter} calls this while the run is going and once it has finished; it can also be run
+ * on its own with the records file and the report file as arguments.
+ */
+public class StreamingReportAggregator {
+
+    private static final org.slf4j.Logger log = LoggerFactory.getLogger(StreamingReportAggregator.class);
+
+    static final int MAX_FAILURES = 200;
+    static final int SLOWEST = 20;
+
+    private final Map<String, Counts> features = new TreeMap<>();
+    private final Map<String, Integer> statuses = new TreeMap<>();
+    private final List<ScenarioRecord> failures = new ArrayList<>();
+    private final PriorityQueue<ScenarioRecord> slowest = new PriorityQueue<>(Comparator.comparingLong(ScenarioRecord::getDurationMillis));
+    private int scenarios;
+    private int failed;
+    private int skippedLines;
+    private long totalMillis;
+    private long firstStart = Long.MAX_VALUE;
+    private long lastEnd;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("Usage: StreamingReportAggregator <scenario records file> <report file>");
+        }
+        aggregate(Paths.get(args[0]), Paths.get(args[1]), 0);
+    }
+
+    /**
+     * Reads the records and writes the report, replacing any previous one atomically.
+     *
+     * @param refreshSeconds for a partial report written while the run is going, how often it is rebuilt, so a
+     *                       browser showing it reloads at the same pace; {@code 0} for the final report
+     */
+    public static void aggregate(Path records, Path report, long refreshSeconds) throws IOException {
+        boolean partial = refreshSeconds > 0;
+        StreamingReportAggregator aggregator = new StreamingReportAggregator();
+        if (Files.exists(records)) {
+            try (BufferedReader reader = Files.newBufferedReader(records, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    aggregator.add(line);
+                }
+            }
+        }
+        Path directory = report.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        // a file of its own, so that two writers of the same report cannot truncate or move each other's
+        Path temporary = Files.createTempFile(directory, report.getFileName().toString(), ".tmp");
+        try {
+            try (Writer writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+                aggregator.write(writer, refreshSeconds);
+            }
+            Files.move(temporary, report, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+        log.debug("Wrote {} report of {} scenarios to {}", partial ? "partial" : "final", aggregator.scenarios, report);
+    }
+
+    void add(String line) {
+        if (line.isBlank()) {
+            return;
+        }
+        ScenarioRecord record;
+        try {
+            record = ScenarioRecord.fromJson(line);
+        } catch (RuntimeException e) {
+            skippedLines++;
+            return;
+        }
+        scenarios++;
+        totalMillis += record.getDurationMillis();
+        firstStart = Math.min(firstStart, record.getStartedAt());
+        lastEnd = Math.max(lastEnd, record.getStartedAt() + record.getDurationMillis());
+        statuses.merge(record.getStatus(), 1, Integer::sum);
+        features.computeIfAbsent(record.getFeature(), feature -> new Counts()).add(record);
+        if ("FAILED".equals(record.getStatus())) {
+            failed++;
+            if (failures.size() < MAX_FAILURES) {
+                failures.add(record);
+            }
+        }
+        slowest.add(record);
+        if (slowest.size() > SLOWEST) {
+            slowest.poll();
+        }
+    }
+
+    void write(Writer out, long refreshSeconds) throws IOException {
+        boolean partial = refreshSeconds > 0;
+        String title = partial ? "Test results (run in progress)" : "Test results";
+        out.write("<!DOCTYPE html>\n<html><head><meta charset=\"utf-8\"><title>" + title + "</title>\n");
+        if (partial) {
+            out.write("<meta http-equiv=\"refresh\" content=\"" + refreshSeconds + "\">\n");
+        }
+        out.write("<style>body{font-family:sans-serif;margin:2em}table{border-collapse:collapse;margin-bottom:2em}"
+                + "td,th{border:1px solid #ccc;padding:4px 8px;text-align:left}.FAILED{color:#c00}.PASSED{color:#080}</style>\n");
+        out.write("</head><body>\n<h1>" + title + "</h1>\n");
+        out.write("<p>Generated " + Instant.now() + " from " + scenarios + " scenarios"
+                + (skippedLines > 0 ? " (" + skippedLines + " unreadable records skipped)" : "") + ".</p>\n");
+
+        out.write("<h2>Summary</h2>\n<table><tr><th>Status</th><th>Scenarios</th></tr>\n");
+        for (Map.Entry<String, Integer> status : statuses.entrySet()) {
+            out.write("<tr><td class=\"" + escape(status.getKey()) + "\">" + escape(status.getKey()) + "</td><td>" + status.getValue() + "</td></tr>\n");
+        }
+        out.write("</table>\n<p>Total scenario time " + format(totalMillis) + ", wall clock "
+                + format(scenarios == 0 ? 0 : lastEnd - firstStart) + ".</p>\n");
+
+        out.write("<h2>Features</h2>\n<table><tr><th>Feature</th><th>Scenarios</th><th>Passed</th><th>Failed</th><th>Other</th><th>Time</th></tr>\n");
+        for (Map.Entry<String, Counts> feature : features.entrySet()) {
+            Counts counts = feature.getValue();
+            out.write("<tr><td>" + escape(feature.getKey()) + "</td><td>" + counts.scenarios + "</td><td>" + counts.passed
+                    + "</td><td>" + counts.failed + "</td><td>" + (counts.scenarios - counts.passed - counts.failed)
+                    + "</td><td>" + format(counts.millis) + "</td></tr>\n");
+        }
+        out.write("</table>\n");
+
+        if (failed > 0) {
+            out.write("<h2>Failures</h2>\n<table><tr><th>Feature</th><th>Scenario</th><th>Location</th><th>Error</th></tr>\n");
+            for (ScenarioRecord failure : failures) {
+                out.write("<tr><td>" + escape(failure.getFeature()) + "</td><td>" + escape(failure.getScenario()) + "</td><td>"
+                        + escape(failure.getId()) + "</td><td class=\"FAILED\">" + escape(failure.getError()) + "</td></tr>\n");
+            }
+            out.write("</table>\n");
+            if (failed > failures.size()) {
+                out.write("<p>" + (failed - failures.size()) + " more failures not shown.</p>\n");
+            }
+        }
+
+        List<ScenarioRecord> slowestFirst = new ArrayList<>(slowest);
+        slowestFirst.sort(Comparator.comparingLong(ScenarioRecord::getDurationMillis).reversed());
+        out.write("<h2>Slowest scenarios</h2>\n<table><tr><th>Scenario</th><th>Location</th><th>Status</th><th>Time</th></tr>\n");
+        for (ScenarioRecord record : slowestFirst) {
+            out.write("<tr><td>" + escape(record.getScenario()) + "</td><td>" + escape(record.getId()) + "</td><td class=\""
+                    + escape(record.getStatus()) + "\">" + escape(record.getStatus()) + "</td><td>"
+                    + format(record.getDurationMillis()) + "</td></tr>\n");
+        }
+        out.write("</table>\n</body></html>\n");
+    }
+
+    private static String format(long millis) {
+        Duration duration = Duration.ofMillis(millis);
+        return duration.toMinutes() > 0
+                ? String.format("%dm %02ds", duration.toMinutes(), duration.toSecondsPart())
+                : String.format("%d.%03ds", duration.getSeconds(), duration.toMillisPart());
+    }
+
+    private static String escape(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder escaped = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '<': escaped.append("&lt;"); break;
+                case '>': escaped.append("&gt;"); break;
+                case '&': escaped.append("&amp;"); break;
+                case '"': escaped.append("&quot;"); break;
+                default: escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+
+    private static class Counts {
+        private int scenarios;
+        private int passed;
+        private int failed;
+        private long millis;
+
+        void add(ScenarioRecord record) {
+            scenarios++;
+            millis += record.getDurationMillis();
+            if ("PASSED".equals(record.getStatus())) {
+                passed++;
+            } else if ("FAILED".equals(record.getStatus())) {
+                failed++;
+            }
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package org.example.reporting;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Builds reports from a records file as {@link ScenarioRecordWriter} writes it.
+ */
+class StreamingReportAggregatorTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void countsScenariosByStatusAndFeature() throws IOException {
+        Path records = records(
+                new ScenarioRecord("features/login.feature:3", "Login", "valid user", "PASSED", 1000, 200, null),
+                new ScenarioRecord("features/login.feature:8", "Login", "locked user", "FAILED", 1100, 300, "expected <a> & \"b\""),
+                new ScenarioRecord("features/search.feature:3", "Search", "empty query", "SKIPPED", 1200, 0, null),
+                new ScenarioRecord("features/search.feature:9", "Search", "one result", "PASSED", 1300, 400, null));
+        Files.writeString(records, "{\"id\": \"cut off", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        String report = aggregate(records, 0);
+
+        assertTrue(report.contains("from 4 scenarios (1 unreadable records skipped)"), report);
+        assertTrue(report.contains("<td class=\"PASSED\">PASSED</td><td>2</td>"), report);
+        assertTrue(report.contains("<td class=\"FAILED\">FAILED</td><td>1</td>"), report);
+        assertTrue(report.contains("<td class=\"SKIPPED\">SKIPPED</td><td>1</td>"), report);
+        assertTrue(report.contains("<tr><td>Login</td><td>2</td><td>1</td><td>1</td><td>0</td><td>0.500s</td></tr>"), report);
+        assertTrue(report.contains("<tr><td>Search</td><td>2</td><td>1</td><td>0</td><td>1</td><td>0.400s</td></tr>"), report);
+        assertTrue(report.contains("<h2>Failures</h2>"), report);
+        assertTrue(report.contains("expected &lt;a&gt; &amp; &quot;b&quot;"), report);
+        // from the first start to the last end
+        assertTrue(report.contains("wall clock 0.700s"), report);
+    }
+
+    @Test
+    void refreshesOnlyAPartialReport() throws IOException {
+        Path records = records(new ScenarioRecord("features/login.feature:3", "Login", "valid user", "PASSED", 1000, 200, null));
+
+        String partial = aggregate(records, 30);
+        String last = aggregate(records, 0);
+
+        assertTrue(partial.contains("<meta http-equiv=\"refresh\" content=\"30\">"), partial);
+        assertTrue(partial.contains("<title>Test results (run in progress)</title>"), partial);
+        assertFalse(last.contains("http-equiv=\"refresh\""), last);
+        assertTrue(last.contains("<title>Test results</title>"), last);
+        assertFalse(last.contains("<h2>Failures</h2>"), last);
+    }
+
+    @Test
+    void writesAnEmptyReportWithoutRecordsAndLeavesNoTemporaryFile() throws IOException {
+        String report = aggregate(directory.resolve("missing.jsonl"), 0);
+
+        assertTrue(report.contains("from 0 scenarios."), report);
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(List.of("report.html"), files.map(file -> file.getFileName().toString()).toList());
+        }
+    }
+
+    private Path records(ScenarioRecord... records) throws IOException {
+        Path file = directory.resolve("records.jsonl");
+        Files.write(file, Stream.of(records).map(ScenarioRecord::toJson).toList(), StandardCharsets.UTF_8);
+        return file;
+    }
+
+    private String aggregate(Path records, long refreshSeconds) throws IOException {
+        Path report = directory.resolve("report.html");
+        StreamingReportAggregator.aggregate(records, report, refreshSeconds);
+        return Files.readString(report, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,65 @@
+package org.example.runner;
+
+import org.openqa.selenium.json.Json;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.stream.Collectors;
+
+/**
+ * Runs the suite through {@link ShardedSuiteRunner} once per shard count, 1, 2 and 3 unless counts are given as
+ * arguments, and records the wall time of each run and its speed-up over the first in
+ * {@code target/sharded-benchmark.json}. The engine's parallelism is divided between the forks, so every run
+ * has the same number of scenarios in flight and only the number of JVMs changes. Meant for the {@code stub}
+ * environment, so that the JVMs rather than a grid are measured:
+ * <pre>
+ * mvn verify -Psharded -Denvironment=stub -Dsharded.main=org.example.runner.ShardedSuiteBenchmark -Dsharded.args="1 2 3"
+ * </pre>
+ */
+public final class ShardedSuiteBenchmark {
+
+    private static final org.slf4j.Logger log = LoggerFactory.getLogger(ShardedSuiteBenchmark.class);
+
+    private static final List<Integer> DEFAULT_SHARDS = List.of(1, 2, 3);
+    private static final Path RESULT = Paths.get("target", "sharded-benchmark.json");
+
+    private ShardedSuiteBenchmark() {
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        List<Integer> shardCounts = args.length == 0
+                ? DEFAULT_SHARDS
+                : Arrays.stream(args).map(Integer::valueOf).collect(Collectors.toList());
+        List<Map<String, Object>> results = new ArrayList<>();
+        long baselineMillis = 0;
+        for (int shards : shardCounts) {
+            ShardedSuiteRunner.run(shards);
+            Properties summary = ShardedSuiteRunner.summary();
+            long wallMillis = Long.parseLong(summary.getProperty("wallMillis"));
+            if (baselineMillis == 0) {
+                baselineMillis = wallMillis;
+            }
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("shards", Integer.parseInt(summary.getProperty("shards")));
+            result.put("scenarios", Long.parseLong(summary.getProperty("scenarios")));
+            result.put("failedShards", summary.getProperty("failedShards"));
+            result.put("wallMillis", wallMillis);
+            result.put("speedUp", wallMillis == 0 ? 0 : Math.round(baselineMillis * 100.0 / wallMillis) / 100.0);
+            log.info("Sharded benchmark with {} shards: {}", shards, result);
+            results.add(result);
+        }
+        Files.createDirectories(RESULT.getParent());
+        Files.write(RESULT, new Json().toJson(results).getBytes(StandardCharsets.UTF_8));
+        log.info("Sharded benchmark written to {}", RESULT);
+    }
+}
@@ -0,0 +1,374 @@
+package org.example.runner;
+
+import net.thucydides.core.guice.Injectors;
+import net.thucydides.core.util.EnvironmentVariables;
+import org.example.TestCaseRunner;
+import org.example.discovery.ScenarioCount;
+import org.example.reporting.ScenarioRecordWriter;
+import org.example.reporting.StreamingReportAggregator;
+import org.example.scheduling.ScenarioDurations;
+import org.example.scheduling.Shard;
+import org.example.scheduling.ShardFilter;
+import org.example.stub.StubWebDriverServer;
+import org.junit.platform.launcher.Launcher;
+import org.junit.platform.launcher.LauncherDiscoveryRequest;
+import org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder;
+import org.junit.platform.launcher.core.LauncherFactory;
+import org.junit.platform.launcher.listeners.SummaryGeneratingListener;
+import org.junit.platform.launcher.listeners.TestExecutionSummary;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.net.URISyntaxException;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectClass;
+
+/**
+ * Splits the {@link TestCaseRunner} suite across {@code shard.count} forked JVMs, so that GC and logging are
+ * spread over several processes instead of one JVM running every scenario. Each fork runs the whole suite
+ * through the JUnit Platform with {@code shard.index} set, and {@link ShardFilter} keeps only its own scenarios.
+ * The number of forks is capped at the {@link ScenarioCount}, which parses the feature files without the
+ * discovery of the whole suite.
+ * <p>
+ * The forks write their Serenity outcomes to the same output directory, where {@code serenity:aggregate} picks
+ * them all up. Their scenario records and durations go to per-shard files, which are merged here once every
+ * fork has finished. Each fork's output is in {@code target/shards/shard-<index>.log}.
+ * <p>
+ * The forks get the system properties of this JVM, and each gets its share of the engine's parallelism, so that
+ * together they run as many scenarios at once as a single JVM would. Forks still running after
+ * {@code shard.timeout} minutes, or when this JVM exits, are stopped.
+ * <p>
+ * Run with {@code mvn verify -Psharded -Dshard.count=3}: the forks run during {@code integration-test} and
+ * {@code verify} fails the build if any of them failed, after the reports have been written.
+ */
+public final class ShardedSuiteRunner {
+
+    public static final String DIRECTORY_PROPERTY = "shard.directory";
+    public static final String TIMEOUT_PROPERTY = "shard.timeout";
+
+    private static final org.slf4j.Logger log = LoggerFactory.getLogger(ShardedSuiteRunner.class);
+    private static final String SUMMARY_FILE = "summary.properties";
+    private static final String PARALLEL = "cucumber.execution.parallel.";
+    // set by the JVM, or by Maven's launcher for itself, rather than for the run
+    private static final List<String> JVM_PROPERTIES = List.of("java.", "jdk.", "sun.", "os.", "user.", "file.", "line.",
+            "path.", "native.", "stdout.", "stderr.", "awt.", "maven.", "classworlds.", "library.jansi.");
+
+    private ShardedSuiteRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String mode = args.length == 0 ? "run" : args[0];
+        switch (mode) {
+            case "run":
+                run(Integer.getInteger(Shard.COUNT_PROPERTY, Runtime.getRuntime().availableProcessors()));
+                break;
+            case "shard":
+                System.exit(runShard() ? 0 : 1);
+                break;
+            case "verify":
+                verify();
+                break;
+            default:
+                throw new IllegalArgumentException("Usage: ShardedSuiteRunner [run|shard|verify]");
+        }
+    }
+
+    static void run(int requestedShards) throws IOException, InterruptedException {
+        Properties configuration = configuration();
+        long scenarios = ScenarioCount.count(ShardedSuiteRunner.class.getClassLoader(), configuration);
+        // a shard without scenarios would fail the suite for not discovering any tests
+        int shards = (int) Math.max(1, Math.min(requestedShards, scenarios));
+        Path directory = directory();
+        Files.createDirectories(directory);
+        StubWebDriverServer.startIfEnabled();
+
+        log.info("Running {} scenarios in {} shards", scenarios, shards);
+        long timeoutMinutes = Long.getLong(TIMEOUT_PROPERTY, 120);
+        long started = System.nanoTime();
+        List<Process> forks = new CopyOnWriteArrayList<>();
+        List<Integer> failed = new ArrayList<>();
+        // so that an aborted build does not leave the forks running
+        Thread stopForks = new Thread(() -> forks.forEach(ShardedSuiteRunner::stop), "stop-shards");
+        Runtime.getRuntime().addShutdownHook(stopForks);
+        try {
+            for (int index = 0; index < shards; index++) {
+                forks.add(fork(index, shards, configuration, directory.resolve("shard-" + index + ".log")));
+            }
+            long deadline = started + TimeUnit.MINUTES.toNanos(timeoutMinutes);
+            for (int index = 0; index < shards; index++) {
+                Process fork = forks.get(index);
+                if (timeoutMinutes > 0 && !fork.waitFor(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                    log.error("Shard {} still running after {} minutes, stopping it", new Shard(index, shards), timeoutMinutes);
+                    stop(fork);
+                    failed.add(index);
+                    continue;
+                }
+                int exitCode = fork.waitFor();
+                log.info("Shard {} finished after {} s with exit code {}",
+                        new Shard(index, shards), TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - started), exitCode);
+                if (exitCode != 0) {
+                    failed.add(index);
+                }
+            }
+        } finally {
+            forks.forEach(ShardedSuiteRunner::stop);
+            try {
+                Runtime.getRuntime().removeShutdownHook(stopForks);
+            } catch (IllegalStateException e) {
+                // already shutting down, and the hook is stopping the forks
+            }
+        }
+        long wallMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        log.info("All {} shards finished in {} s", shards, wallMillis / 1000);
+
+        // a single fork writes the usual files itself
+        if (shards > 1) {
+            mergeDurations(shards);
+            mergeScenarioRecords(shards);
+        }
+        StubWebDriverServer stubServer = StubWebDriverServer.running();
+        if (stubServer != null) {
+            stubServer.logSummary();
+            // its HTTP dispatcher would otherwise keep exec:java waiting
+            StubWebDriverServer.stopRunning();
+        }
+
+        Properties summary = new Properties();
+        summary.setProperty("shards", String.valueOf(shards));
+        summary.setProperty("scenarios", String.valueOf(scenarios));
+        summary.setProperty("wallMillis", String.valueOf(wallMillis));
+        summary.setProperty("failedShards", failed.stream().map(String::valueOf).collect(Collectors.joining(",")));
+        try (Writer writer = Files.newBufferedWriter(directory.resolve(SUMMARY_FILE), StandardCharsets.UTF_8)) {
+            summary.store(writer, "Sharded run");
+        }
+    }
+
+    private static Process fork(int index, int shards, Properties configuration, Path logFile) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        // the JVM options of this one, such as its heap size, minus a debugger port the forks cannot share; its
+        // system properties follow below
+        ManagementFactory.getRuntimeMXBean().getInputArguments().stream()
+                .filter(argument -> !argument.startsWith("-D") && !argument.startsWith("-agentlib:jdwp"))
+                .forEach(command::add);
+        // as the failsafe argLine gives the scenarios
+        command.add("--add-opens");
+        command.add("java.base/java.lang=ALL-UNNAMED");
+        // every setting of the run, including those given to Maven with -D when run through exec:java
+        Map<String, String> properties = new TreeMap<>();
+        for (String name : System.getProperties().stringPropertyNames()) {
+            if (isRunSetting(name)) {
+                properties.put(name, System.getProperty(name));
+            }
+        }
+        properties.putAll(parallelismShare(configuration, index, shards));
+        properties.put(Shard.INDEX_PROPERTY, String.valueOf(index));
+        properties.put(Shard.COUNT_PROPERTY, String.valueOf(shards));
+        properties.forEach((name, value) -> command.add("-D" + name + "=" + value));
+        command.add("-cp");
+        command.add(classPath());
+        command.add(ShardedSuiteRunner.class.getName());
+        command.add("shard");
+        return new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(logFile.toFile())
+                .start();
+    }
+
+    static boolean isRunSetting(String name) {
+        // the stub server's idle connection limit is read by each fork's own HTTP server
+        return name.startsWith("sun.net.") || JVM_PROPERTIES.stream().noneMatch(name::startsWith);
+    }
+
+    /**
+     * @return the engine's parallelism settings for one fork: the configured fixed or {@code custom} parallelism
+     * and pool size, or the dynamic factor, divided between the forks
+     */
+    static Map<String, String> parallelismShare(Properties configuration, int index, int shards) {
+        Map<String, String> share = new LinkedHashMap<>();
+        if (!Boolean.parseBoolean(configuration.getProperty(PARALLEL + "enabled", "false").trim())) {
+            return share;
+        }
+        String strategy = configuration.getProperty(PARALLEL + "config.strategy", "dynamic").trim().toLowerCase(Locale.ROOT);
+        if (strategy.equals("dynamic")) {
+            double factor = Double.parseDouble(configuration.getProperty(PARALLEL + "config.dynamic.factor", "1").trim());
+            share.put(PARALLEL + "config.dynamic.factor", String.valueOf(factor / shards));
+            return share;
+        }
+        String parallelism = configuration.getProperty(PARALLEL + "config." + strategy + ".parallelism");
+        if (parallelism == null) {
+            return share;
+        }
+        int forkParallelism = share(Integer.parseInt(parallelism.trim()), index, shards);
+        share.put(PARALLEL + "config." + strategy + ".parallelism", String.valueOf(forkParallelism));
+        String maxPoolSize = configuration.getProperty(PARALLEL + "config." + strategy + ".max-pool-size");
+        if (maxPoolSize != null) {
+            share.put(PARALLEL + "config." + strategy + ".max-pool-size",
+                    String.valueOf(Math.max(forkParallelism, share(Integer.parseInt(maxPoolSize.trim()), index, shards))));
+        }
+        return share;
+    }
+
+    // the first forks take the remainder, so that the shares add up to the total
+    private static int share(int total, int index, int shards) {
+        return Math.max(1, total / shards + (index < total % shards ? 1 : 0));
+    }
+
+    // junit-platform.properties overridden by system properties, as the engine reads them
+    private static Properties configuration() throws IOException {
+        Properties configuration = new Properties();
+        try (InputStream stream = ShardedSuiteRunner.class.getClassLoader().getResourceAsStream("junit-platform.properties")) {
+            if (stream != null) {
+                configuration.load(stream);
+            }
+        }
+        configuration.putAll(System.getProperties());
+        return configuration;
+    }
+
+    // under exec:java the suite is on the class loader of the plugin rather than on java.class.path
+    private static String classPath() {
+        ClassLoader classLoader = ShardedSuiteRunner.class.getClassLoader();
+        if (classLoader instanceof URLClassLoader) {
+            return Arrays.stream(((URLClassLoader) classLoader).getURLs())
+                    .map(url -> {
+                        try {
+                            return Paths.get(url.toURI()).toString();
+                        } catch (URISyntaxException e) {
+                            throw new IllegalStateException("Unable to put " + url + " on the class path of the shards", e);
+                        }
+                    })
+                    .collect(Collectors.joining(File.pathSeparator));
+        }
+        return System.getProperty("java.class.path");
+    }
+
+    private static void stop(Process fork) {
+        if (fork.isAlive()) {
+            fork.descendants().forEach(ProcessHandle::destroyForcibly);
+            fork.destroyForcibly();
+        }
+    }
+
+    private static boolean runShard() {
+        Launcher launcher = LauncherFactory.create();
+        SummaryGeneratingListener listener = new SummaryGeneratingListener();
+        launcher.execute(suite(), listener);
+        TestExecutionSummary summary = listener.getSummary();
+        summary.printTo(new PrintWriter(System.out));
+        summary.printFailuresTo(new PrintWriter(System.out), 10);
+        return summary.getTotalFailureCount() == 0;
+    }
+
+    private static void verify() throws IOException {
+        Properties summary = summary();
+        String failed = summary.getProperty("failedShards", "");
+        if (!failed.isEmpty()) {
+            throw new IllegalStateException("Shards " + failed + " failed, see the logs in " + directory());
+        }
+    }
+
+    /**
+     * @return the shard count, scenario count, wall time and failed shards of the last run
+     */
+    static Properties summary() throws IOException {
+        Path file = directory().resolve(SUMMARY_FILE);
+        if (!Files.exists(file)) {
+            throw new IllegalStateException("No sharded run found at " + file);
+        }
+        Properties summary = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            summary.load(reader);
+        }
+        return summary;
+    }
+
+    private static void mergeDurations(int shards) {
+        Path location = ScenarioDurations.location();
+        ScenarioDurations history = ScenarioDurations.load(location);
+        List<Path> shardFiles = new ArrayList<>();
+        for (int index = 0; index < shards; index++) {
+            Path shardFile = new Shard(index, shards).file(location);
+            if (Files.exists(shardFile)) {
+                history = history.merge(ScenarioDurations.load(shardFile));
+                shardFiles.add(shardFile);
+            }
+        }
+        if (shardFiles.isEmpty()) {
+            return;
+        }
+        try {
+            history.save(location);
+            for (Path shardFile : shardFiles) {
+                Files.delete(shardFile);
+            }
+        } catch (IOException e) {
+            log.warn("Unable to merge scenario durations into {}", location, e);
+        }
+    }
+
+    private static void mergeScenarioRecords(int shards) {
+        EnvironmentVariables environmentVariables = Injectors.getInjector().getInstance(EnvironmentVariables.class);
+        Path outputDirectory = Paths.get(environmentVariables.getProperty("serenity.outputDirectory", "target/site/serenity"));
+        Path records = outputDirectory.resolve(ScenarioRecordWriter.RECORDS_FILE);
+        Path report = outputDirectory.resolve(ScenarioRecordWriter.REPORT_FILE);
+        List<Shard> recorded = new ArrayList<>();
+        for (int index = 0; index < shards; index++) {
+            Shard shard = new Shard(index, shards);
+            if (Files.exists(outputDirectory.resolve(shard.fileName(ScenarioRecordWriter.RECORDS_FILE)))) {
+                recorded.add(shard);
+            }
+        }
+        if (recorded.isEmpty()) {
+            return;
+        }
+        try (OutputStream out = Files.newOutputStream(records)) {
+            for (Shard shard : recorded) {
+                Path shardRecords = outputDirectory.resolve(shard.fileName(ScenarioRecordWriter.RECORDS_FILE));
+                Files.copy(shardRecords, out);
+                Files.delete(shardRecords);
+                Files.deleteIfExists(outputDirectory.resolve(shard.fileName(ScenarioRecordWriter.REPORT_FILE)));
+            }
+        } catch (IOException e) {
+            log.warn("Unable to merge scenario records into {}", records, e);
+            return;
+        }
+        try {
+            StreamingReportAggregator.aggregate(records, report, 0);
+            log.info("Wrote test results summary of all shards to {}", report);
+        } catch (IOException e) {
+            log.warn("Unable to write {}", report, e);
+        }
+    }
+
+    private static LauncherDiscoveryRequest suite() {
+        return LauncherDiscoveryRequestBuilder.request().selectors(selectClass(TestCaseRunner.class)).build();
+    }
+
+    private static Path directory() {
+        return Paths.get(System.getProperty(DIRECTORY_PROPERTY, "target/shards"));
+    }
+}
@@ -0,0 +1,90 @@
+package org.example.runner;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks what {@link ShardedSuiteRunner} hands each fork: its share of the parallelism and the settings of the run.
+ */
+class ShardedSuiteRunnerTest {
+
+    private static final String FIXED = "cucumber.execution.parallel.config.fixed.";
+
+    @Test
+    void dividesTheFixedParallelismBetweenTheForks() {
+        Properties configuration = configuration(
+                "cucumber.execution.parallel.enabled", "true",
+                "cucumber.execution.parallel.config.strategy", "fixed",
+                FIXED + "parallelism", "50",
+                FIXED + "max-pool-size", "50");
+
+        int total = 0;
+        for (int index = 0; index < 3; index++) {
+            Map<String, String> share = ShardedSuiteRunner.parallelismShare(configuration, index, 3);
+            assertEquals(share.get(FIXED + "parallelism"), share.get(FIXED + "max-pool-size"));
+            total += Integer.parseInt(share.get(FIXED + "parallelism"));
+        }
+
+        assertEquals(50, total);
+        assertEquals(Map.of(FIXED + "parallelism", "17", FIXED + "max-pool-size", "17"),
+                ShardedSuiteRunner.parallelismShare(configuration, 0, 3));
+        assertEquals(Map.of(FIXED + "parallelism", "16", FIXED + "max-pool-size", "16"),
+                ShardedSuiteRunner.parallelismShare(configuration, 2, 3));
+    }
+
+    @Test
+    void keepsAtLeastOneWorkerAndAPoolAsLargeAsTheParallelism() {
+        Properties configuration = configuration(
+                "cucumber.execution.parallel.enabled", "true",
+                "cucumber.execution.parallel.config.strategy", "custom",
+                "cucumber.execution.parallel.config.custom.parallelism", "2",
+                "cucumber.execution.parallel.config.custom.max-pool-size", "1");
+
+        assertEquals(Map.of("cucumber.execution.parallel.config.custom.parallelism", "1",
+                        "cucumber.execution.parallel.config.custom.max-pool-size", "1"),
+                ShardedSuiteRunner.parallelismShare(configuration, 3, 4));
+    }
+
+    @Test
+    void dividesTheDynamicFactor() {
+        Properties configuration = configuration(
+                "cucumber.execution.parallel.enabled", "true",
+                "cucumber.execution.parallel.config.dynamic.factor", "3");
+
+        assertEquals(Map.of("cucumber.execution.parallel.config.dynamic.factor", "1.5"),
+                ShardedSuiteRunner.parallelismShare(configuration, 0, 2));
+    }
+
+    @Test
+    void leavesASequentialRunAlone() {
+        assertTrue(ShardedSuiteRunner.parallelismShare(configuration(), 0, 3).isEmpty());
+    }
+
+    @Test
+    void forwardsTheSettingsOfTheRunButNotThoseOfTheJvm() {
+        assertTrue(ShardedSuiteRunner.isRunSetting("cucumber.filter.tags"));
+        assertTrue(ShardedSuiteRunner.isRunSetting("webdriver.remote.url"));
+        assertTrue(ShardedSuiteRunner.isRunSetting("serenity.outputDirectory"));
+        assertTrue(ShardedSuiteRunner.isRunSetting("environment"));
+        assertTrue(ShardedSuiteRunner.isRunSetting("sun.net.httpserver.maxIdleConnections"));
+        assertFalse(ShardedSuiteRunner.isRunSetting("java.class.path"));
+        assertFalse(ShardedSuiteRunner.isRunSetting("user.dir"));
+        assertFalse(ShardedSuiteRunner.isRunSetting("sun.java.command"));
+        assertFalse(ShardedSuiteRunner.isRunSetting("maven.home"));
+        assertFalse(ShardedSuiteRunner.isRunSetting("classworlds.conf"));
+    }
+
+    private static Properties configuration(String... entries) {
+        Properties configuration = new Properties();
+        for (int i = 0; i < entries.length; i += 2) {
+            configuration.setProperty(entries[i], entries[i + 1]);
+        }
+        return configuration;
+    }
+}
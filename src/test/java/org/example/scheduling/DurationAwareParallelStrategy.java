@@ -0,0 +1,92 @@
+package org.example.scheduling;
+
+import org.example.metrics.RunMetrics;
+import org.junit.platform.engine.ConfigurationParameters;
+import org.junit.platform.engine.support.hierarchical.ParallelExecutionConfiguration;
+import org.junit.platform.engine.support.hierarchical.ParallelExecutionConfigurationStrategy;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Opt-in worker pool sizing from the recorded {@link ScenarioDurations}. The configured parallelism is used
+ * as is unless {@code custom.trim-idle-workers} is set, in which case it is an upper bound lowered to the
+ * smallest worker count whose simulated longest-first run finishes as early as with the full bound. The
+ * simulation assumes every scenario takes its recorded time, so trimming can make a run slower when real
+ * durations vary; it is meant for grids where each idle worker holds a browser session.
+ * <pre>
+ * cucumber.execution.parallel.config.strategy=custom
+ * cucumber.execution.parallel.config.custom.class=org.example.scheduling.DurationAwareParallelStrategy
+ * cucumber.execution.parallel.config.custom.parallelism=50
+ * cucumber.execution.parallel.config.custom.max-pool-size=50
+ * cucumber.execution.parallel.config.custom.trim-idle-workers=true
+ * </pre>
+ */
+public class DurationAwareParallelStrategy implements ParallelExecutionConfigurationStrategy {
+
+    static final String PARALLELISM = "custom.parallelism";
+    static final String MAX_POOL_SIZE = "custom.max-pool-size";
+    static final String TRIM_IDLE_WORKERS = "custom.trim-idle-workers";
+
+    private static final org.slf4j.Logger log = LoggerFactory.getLogger(DurationAwareParallelStrategy.class);
+    private static final int KEEP_ALIVE_SECONDS = 30;
+
+    @Override
+    public ParallelExecutionConfiguration createConfiguration(ConfigurationParameters configurationParameters) {
+        int maxParallelism = configurationParameters.get(PARALLELISM, Integer::valueOf)
+                .orElse(Runtime.getRuntime().availableProcessors());
+        int maxPoolSize = configurationParameters.get(MAX_POOL_SIZE, Integer::valueOf).orElse(maxParallelism);
+
+        boolean trim = configurationParameters.getBoolean(TRIM_IDLE_WORKERS).orElse(false);
+        int parallelism = trim ? parallelism(ScenarioDurations.load(), maxParallelism) : maxParallelism;
+        log.info("Running scenarios with parallelism {} (configured {})", parallelism, maxParallelism);
+        RunMetrics.instance().workers(parallelism);
+        return new Configuration(parallelism, Math.max(maxPoolSize, parallelism));
+    }
+
+    static int parallelism(ScenarioDurations history, int maxParallelism) {
+        if (history.isEmpty()) {
+            return maxParallelism;
+        }
+        long best = history.makespan(maxParallelism);
+        int parallelism = maxParallelism;
+        while (parallelism > 1 && history.makespan(parallelism - 1) <= best) {
+            parallelism--;
+        }
+        return parallelism;
+    }
+
+    private static class Configuration implements ParallelExecutionConfiguration {
+
+        private final int parallelism;
+        private final int maxPoolSize;
+
+        Configuration(int parallelism, int maxPoolSize) {
+            this.parallelism = parallelism;
+            this.maxPoolSize = maxPoolSize;
+        }
+
+        @Override
+        public int getParallelism() {
+            return parallelism;
+        }
+
+        @Override
+        public int getMinimumRunnable() {
+            return parallelism;
+        }
+
+        @Override
+        public int getMaxPoolSize() {
+            return maxPoolSize;
+        }
+
+        @Override
+        public int getCorePoolSize() {
+            return parallelism;
+        }
+
+        @Override
+        public int getKeepAliveSeconds() {
+            return KEEP_ALIVE_SECONDS;
+        }
+    }
+}
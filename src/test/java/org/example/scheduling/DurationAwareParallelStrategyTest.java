@@ -0,0 +1,180 @@
+package org.example.scheduling;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.platform.engine.ConfigurationParameters;
+import org.junit.platform.engine.support.hierarchical.ParallelExecutionConfiguration;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Simulates the suite's schedule from the mock step durations in {@code features/test1..3.feature}, taking each
+ * scenario to last exactly the seconds its step waits.
+ */
+class DurationAwareParallelStrategyTest {
+
+    private static final Pattern MOCK_STEP = Pattern.compile("I run mock step in (\\d+) seconds");
+    private static final Map<String, Long> MOCK_DURATIONS = mockDurations("test1", "test2", "test3");
+
+    private final ScenarioDurations history = new ScenarioDurations(MOCK_DURATIONS);
+
+    @Test
+    void runsEveryScenarioOnASingleWorkerBackToBack() {
+        assertEquals(total(), history.makespan(1));
+    }
+
+    @Test
+    void finishesWithTheLongestScenarioWhenEachHasItsOwnWorker() {
+        assertEquals(history.longest(), history.makespan(MOCK_DURATIONS.size()));
+        assertEquals(9_000, history.longest());
+    }
+
+    @Test
+    void schedulesLongestFirstCloseToTheLowerBound() {
+        for (int workers = 1; workers <= 60; workers++) {
+            long lowerBound = Math.max(history.longest(), (total() + workers - 1) / workers);
+            long makespan = history.makespan(workers);
+            assertTrue(makespan >= lowerBound, "makespan below the lower bound with " + workers + " workers");
+            assertTrue(makespan < lowerBound + history.longest(), "makespan too long with " + workers + " workers");
+        }
+    }
+
+    @Test
+    void shortensTheTailAtTheConfiguredParallelism() {
+        assertEquals(26_000, history.makespan(50));
+        assertEquals(31_000, inFileOrder(50));
+        assertEquals(65_000, history.makespan(20));
+        assertEquals(69_000, inFileOrder(20));
+    }
+
+    @Test
+    void keepsTheConfiguredParallelismWithoutHistory() {
+        assertEquals(50, DurationAwareParallelStrategy.parallelism(new ScenarioDurations(Map.of()), 50));
+    }
+
+    @Test
+    void trimsToTheFewestWorkersWithTheSameSimulatedFinish() {
+        int parallelism = DurationAwareParallelStrategy.parallelism(history, 50);
+
+        assertTrue(parallelism <= 50);
+        assertEquals(history.makespan(50), history.makespan(parallelism));
+        assertTrue(history.makespan(parallelism - 1) > history.makespan(50));
+    }
+
+    @Test
+    void usesTheConfiguredParallelismUnlessAskedToTrim(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("scenario-durations.properties");
+        history.save(file);
+        String previous = System.setProperty(ScenarioDurations.LOCATION_PROPERTY, file.toString());
+        try {
+            DurationAwareParallelStrategy strategy = new DurationAwareParallelStrategy();
+            ParallelExecutionConfiguration configured = strategy.createConfiguration(parameters(Map.of(
+                    DurationAwareParallelStrategy.PARALLELISM, "50")));
+            ParallelExecutionConfiguration trimmed = strategy.createConfiguration(parameters(Map.of(
+                    DurationAwareParallelStrategy.PARALLELISM, "50",
+                    DurationAwareParallelStrategy.TRIM_IDLE_WORKERS, "true")));
+
+            assertEquals(50, configured.getParallelism());
+            assertEquals(50, configured.getMaxPoolSize());
+            assertEquals(DurationAwareParallelStrategy.parallelism(history, 50), trimmed.getParallelism());
+            assertEquals(50, trimmed.getMaxPoolSize());
+        } finally {
+            if (previous == null) {
+                System.clearProperty(ScenarioDurations.LOCATION_PROPERTY);
+            } else {
+                System.setProperty(ScenarioDurations.LOCATION_PROPERTY, previous);
+            }
+        }
+    }
+
+    private static long total() {
+        return MOCK_DURATIONS.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    /**
+     * @return the finish of the run when scenarios are started in the order of the feature files
+     */
+    private static long inFileOrder(int workers) {
+        PriorityQueue<Long> finishTimes = new PriorityQueue<>();
+        for (int i = 0; i < workers; i++) {
+            finishTimes.add(0L);
+        }
+        long makespan = 0;
+        for (long duration : MOCK_DURATIONS.values()) {
+            long finish = finishTimes.poll() + duration;
+            makespan = Math.max(makespan, finish);
+            finishTimes.add(finish);
+        }
+        return makespan;
+    }
+
+    private static Map<String, Long> mockDurations(String... features) {
+        Map<String, Long> durations = new LinkedHashMap<>();
+        for (String feature : features) {
+            String resource = "features/" + feature + ".feature";
+            try (InputStream stream = DurationAwareParallelStrategyTest.class.getClassLoader().getResourceAsStream(resource)) {
+                assertNotNull(stream, resource);
+                BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8));
+                List<String> lines = new ArrayList<>();
+                reader.lines().forEach(lines::add);
+                int scenarioLine = 0;
+                for (int i = 0; i < lines.size(); i++) {
+                    if (lines.get(i).trim().startsWith("Scenario")) {
+                        scenarioLine = i + 1;
+                    }
+                    Matcher step = MOCK_STEP.matcher(lines.get(i));
+                    if (step.find()) {
+                        durations.put(resource + ":" + scenarioLine, Long.parseLong(step.group(1)) * 1000);
+                    }
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        assertEquals(270, durations.size());
+        return durations;
+    }
+
+    private static ConfigurationParameters parameters(Map<String, String> values) {
+        return new ConfigurationParameters() {
+            @Override
+            public Optional<String> get(String key) {
+                return Optional.ofNullable(values.get(key));
+            }
+
+            @Override
+            public Optional<Boolean> getBoolean(String key) {
+                return get(key).map(Boolean::valueOf);
+            }
+
+            @Override
+            @SuppressWarnings("deprecation")
+            public int size() {
+                return values.size();
+            }
+
+            @Override
+            public Set<String> keySet() {
+                return values.keySet();
+            }
+        };
+    }
+}
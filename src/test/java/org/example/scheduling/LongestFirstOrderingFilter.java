@@ -0,0 +1,76 @@
+package org.example.scheduling;
+
+import org.junit.platform.engine.FilterResult;
+import org.junit.platform.engine.TestDescriptor;
+import org.junit.platform.engine.UniqueId;
+import org.junit.platform.launcher.PostDiscoveryFilter;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Reorders discovered Cucumber scenarios so the longest ones, according to {@link ScenarioDurations},
+ * are submitted to the parallel executor first. Scenarios without history are treated as the longest
+ * recorded one. Nothing is filtered out, and the discovery order is kept when no history exists.
+ * <p>
+ * Registered through {@code META-INF/services/org.junit.platform.launcher.PostDiscoveryFilter}.
+ */
+public class LongestFirstOrderingFilter implements PostDiscoveryFilter {
+
+    private static final UniqueId.Segment CUCUMBER_ENGINE = UniqueId.forEngine("cucumber").getLastSegment();
+
+    private ScenarioDurations history;
+
+    @Override
+    public FilterResult apply(TestDescriptor descriptor) {
+        if (descriptor.getChildren().size() > 1 && isCucumber(descriptor)) {
+            reorderChildren(descriptor);
+        }
+        return FilterResult.included("ordering only");
+    }
+
+    private void reorderChildren(TestDescriptor descriptor) {
+        if (history == null) {
+            history = ScenarioDurations.load();
+        }
+        if (history.isEmpty()) {
+            return;
+        }
+        List<TestDescriptor> children = new ArrayList<>(descriptor.getChildren());
+        List<TestDescriptor> ordered = new ArrayList<>(children);
+        ordered.sort(Comparator.comparingLong(this::longestScenario)
+                .thenComparingLong(this::totalDuration)
+                .reversed());
+        if (ordered.equals(children)) {
+            return;
+        }
+        ordered.forEach(descriptor::removeChild);
+        ordered.forEach(descriptor::addChild);
+    }
+
+    private long longestScenario(TestDescriptor descriptor) {
+        if (descriptor.isTest()) {
+            return estimate(descriptor);
+        }
+        return descriptor.getChildren().stream().mapToLong(this::longestScenario).max().orElse(0);
+    }
+
+    private long totalDuration(TestDescriptor descriptor) {
+        if (descriptor.isTest()) {
+            return estimate(descriptor);
+        }
+        return descriptor.getChildren().stream().mapToLong(this::totalDuration).sum();
+    }
+
+    private long estimate(TestDescriptor scenario) {
+        return scenario.getSource()
+                .flatMap(ScenarioDurations::key)
+                .flatMap(history::get)
+                .orElseGet(history::longest);
+    }
+
+    private static boolean isCucumber(TestDescriptor descriptor) {
+        return descriptor.getUniqueId().getSegments().contains(CUCUMBER_ENGINE);
+    }
+}
@@ -0,0 +1,64 @@
+package org.example.scheduling;
+
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.TestCase;
+import io.cucumber.plugin.event.TestCaseFinished;
+import io.cucumber.plugin.event.TestCaseStarted;
+import io.cucumber.plugin.event.TestRunFinished;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cucumber plugin that records the wall time of every scenario and merges it into the
+ * {@link ScenarioDurations} history when the run finishes. In a sharded run each shard writes its own file,
+ * merged into the history by {@link org.example.runner.ShardedSuiteRunner}.
+ */
+public class ScenarioDurationRecorder implements ConcurrentEventListener {
+
+    private static final org.slf4j.Logger log = LoggerFactory.getLogger(ScenarioDurationRecorder.class);
+
+    private final Map<TestCase, Instant> started = new ConcurrentHashMap<>();
+    private final Map<String, Long> millisByScenario = new ConcurrentHashMap<>();
+
+    @Override
+    public void setEventPublisher(EventPublisher publisher) {
+        publisher.registerHandlerFor(TestCaseStarted.class, event -> started.put(event.getTestCase(), event.getInstant()));
+        publisher.registerHandlerFor(TestCaseFinished.class, this::testCaseFinished);
+        publisher.registerHandlerFor(TestRunFinished.class, event -> save());
+    }
+
+    private void testCaseFinished(TestCaseFinished event) {
+        TestCase testCase = event.getTestCase();
+        Instant start = started.remove(testCase);
+        if (start != null) {
+            String key = ScenarioDurations.key(testCase.getUri(), testCase.getLocation().getLine());
+            millisByScenario.put(key, Duration.between(start, event.getInstant()).toMillis());
+        }
+    }
+
+    private void save() {
+        if (millisByScenario.isEmpty()) {
+            return;
+        }
+        Path location = ScenarioDurations.location();
+        Shard shard = Shard.current();
+        try {
+            if (shard.isSharded()) {
+                location = shard.file(location);
+                new ScenarioDurations(millisByScenario).save(location);
+            } else {
+                ScenarioDurations.load(location).merge(millisByScenario).save(location);
+            }
+            log.info("Recorded durations of {} scenarios to {}", millisByScenario.size(), location);
+        } catch (IOException e) {
+            log.warn("Unable to write scenario durations to {}", location, e);
+        }
+    }
+}
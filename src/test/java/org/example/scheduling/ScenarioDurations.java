@@ -0,0 +1,160 @@
+package org.example.scheduling;
+
+import org.junit.platform.engine.TestSource;
+import org.junit.platform.engine.support.descriptor.ClasspathResourceSource;
+import org.junit.platform.engine.support.descriptor.FilePosition;
+import org.junit.platform.engine.support.descriptor.FileSource;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Properties;
+
+/**
+ * Wall time of each scenario from previous runs, keyed by feature resource and scenario line.
+ * Stored as a properties file at {@code .cucumber/scenario-durations.properties} unless the
+ * {@code scenario.durations.file} system property points elsewhere.
+ */
+public class ScenarioDurations {
+
+    public static final String LOCATION_PROPERTY = "scenario.durations.file";
+
+    private static final org.slf4j.Logger log = LoggerFactory.getLogger(ScenarioDurations.class);
+
+    private final Map<String, Long> millisByScenario;
+
+    public ScenarioDurations(Map<String, Long> millisByScenario) {
+        this.millisByScenario = Collections.unmodifiableMap(new HashMap<>(millisByScenario));
+    }
+
+    public static Path location() {
+        return Paths.get(System.getProperty(LOCATION_PROPERTY, ".cucumber/scenario-durations.properties"));
+    }
+
+    public static ScenarioDurations load() {
+        return load(location());
+    }
+
+    public static ScenarioDurations load(Path file) {
+        Map<String, Long> millis = new HashMap<>();
+        if (Files.isRegularFile(file)) {
+            Properties properties = new Properties();
+            try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                properties.load(reader);
+            } catch (IOException e) {
+                log.warn("Unable to read scenario durations from {}", file, e);
+            }
+            for (String key : properties.stringPropertyNames()) {
+                try {
+                    millis.put(key, Long.parseLong(properties.getProperty(key).trim()));
+                } catch (NumberFormatException ignore) {
+                }
+            }
+        }
+        return new ScenarioDurations(millis);
+    }
+
+    public void save(Path file) throws IOException {
+        Properties properties = new Properties();
+        millisByScenario.forEach((key, value) -> properties.setProperty(key, String.valueOf(value)));
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            properties.store(writer, "Scenario wall time in milliseconds");
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * @return a copy of this history with {@code latest} overriding the recorded durations
+     */
+    public ScenarioDurations merge(Map<String, Long> latest) {
+        Map<String, Long> merged = new HashMap<>(millisByScenario);
+        merged.putAll(latest);
+        return new ScenarioDurations(merged);
+    }
+
+    public ScenarioDurations merge(ScenarioDurations latest) {
+        return merge(latest.millisByScenario);
+    }
+
+    public boolean isEmpty() {
+        return millisByScenario.isEmpty();
+    }
+
+    public Optional<Long> get(String scenarioKey) {
+        return Optional.ofNullable(millisByScenario.get(scenarioKey));
+    }
+
+    public long longest() {
+        return millisByScenario.values().stream().mapToLong(Long::longValue).max().orElse(0);
+    }
+
+    /**
+     * Simulates a longest-first schedule of the recorded scenarios over the given number of workers.
+     *
+     * @return the predicted total wall time in milliseconds
+     */
+    public long makespan(int workers) {
+        return makespan(millisByScenario.values(), workers);
+    }
+
+    public static long makespan(Collection<Long> durations, int workers) {
+        List<Long> longestFirst = new ArrayList<>(durations);
+        longestFirst.sort(Collections.reverseOrder());
+        PriorityQueue<Long> finishTimes = new PriorityQueue<>();
+        for (int i = 0; i < Math.max(1, workers); i++) {
+            finishTimes.add(0L);
+        }
+        long makespan = 0;
+        for (long duration : longestFirst) {
+            long finish = finishTimes.poll() + duration;
+            makespan = Math.max(makespan, finish);
+            finishTimes.add(finish);
+        }
+        return makespan;
+    }
+
+    public static String key(URI featureUri, int line) {
+        String feature;
+        if ("classpath".equals(featureUri.getScheme())) {
+            feature = featureUri.getSchemeSpecificPart();
+            if (feature.startsWith("/")) {
+                feature = feature.substring(1);
+            }
+        } else if ("file".equals(featureUri.getScheme())) {
+            feature = Paths.get(featureUri).toString();
+        } else {
+            feature = featureUri.toString();
+        }
+        return feature + ":" + line;
+    }
+
+    public static Optional<String> key(TestSource source) {
+        if (source instanceof ClasspathResourceSource) {
+            ClasspathResourceSource resource = (ClasspathResourceSource) source;
+            return resource.getPosition().map(position -> resource.getClasspathResourceName() + ":" + position.getLine());
+        }
+        if (source instanceof FileSource) {
+            FileSource file = (FileSource) source;
+            return file.getPosition().map(FilePosition::getLine).map(line -> file.getFile().toPath().toString() + ":" + line);
+        }
+        return Optional.empty();
+    }
+}
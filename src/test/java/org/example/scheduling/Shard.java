@@ -0,0 +1,106 @@
+package org.example.scheduling;
+
+import java.nio.file.Path;
+
+/**
+ * The slice of the suite run by this JVM, set by {@link org.example.runner.ShardedSuiteRunner} through the
+ * {@code shard.index} and {@code shard.count} system properties. Outside a sharded run there is a single shard.
+ * <p>
+ * A JVM started for a shard is a {@link #isFork() fork} even when it is the only one; whatever the parent already
+ * provides, such as the stub WebDriver server, is not started again there. Files and ports that every JVM of a run
+ * would otherwise share get a per-shard name or offset here, once there is more than one shard.
+ */
+public final class Shard {
+
+    public static final String INDEX_PROPERTY = "shard.index";
+    public static final String COUNT_PROPERTY = "shard.count";
+
+    private static final Shard CURRENT = from(System.getProperty(INDEX_PROPERTY), System.getProperty(COUNT_PROPERTY));
+
+    private final int index;
+    private final int count;
+    private final boolean fork;
+
+    /**
+     * One of the forks of a sharded run.
+     */
+    public Shard(int index, int count) {
+        this(index, count, true);
+    }
+
+    private Shard(int index, int count, boolean fork) {
+        if (count < 1 || index < 0 || index >= count) {
+            throw new IllegalArgumentException("Invalid shard " + index + " of " + count);
+        }
+        this.index = index;
+        this.count = count;
+        this.fork = fork;
+    }
+
+    public static Shard current() {
+        return CURRENT;
+    }
+
+    /**
+     * @param index the {@code shard.index} property, only set in forks
+     * @param count the {@code shard.count} property; alone it is the number of forks requested from
+     *              ShardedSuiteRunner, which itself runs no scenarios
+     */
+    static Shard from(String index, String count) {
+        if (index == null) {
+            return new Shard(0, 1, false);
+        }
+        return new Shard(Integer.parseInt(index), count == null ? 1 : Integer.parseInt(count), true);
+    }
+
+    public int index() {
+        return index;
+    }
+
+    public int count() {
+        return count;
+    }
+
+    /**
+     * @return {@code true} in a JVM started by ShardedSuiteRunner to run a shard, even the only one
+     */
+    public boolean isFork() {
+        return fork;
+    }
+
+    /**
+     * @return {@code true} if the suite is split across more than one shard
+     */
+    public boolean isSharded() {
+        return count > 1;
+    }
+
+    /**
+     * @return {@code name} with {@code .shard-<index>} inserted before its extension, or {@code name} itself
+     * when the run is not sharded
+     */
+    public String fileName(String name) {
+        if (!isSharded()) {
+            return name;
+        }
+        int extension = name.lastIndexOf('.');
+        String suffix = ".shard-" + index;
+        return extension <= 0 ? name + suffix : name.substring(0, extension) + suffix + name.substring(extension);
+    }
+
+    public Path file(Path path) {
+        return path.resolveSibling(fileName(path.getFileName().toString()));
+    }
+
+    /**
+     * @return {@code port} offset by the shard index, so that each shard listens on its own port; 0 stays 0
+     */
+    public int port(int port) {
+        return port <= 0 ? port : port + index;
+    }
+
+    @Override
+    public String toString() {
+        return (index + 1) + "/" + count;
+    }
+}
@@ -0,0 +1,113 @@
+package org.example.scheduling;
+
+import org.junit.platform.engine.FilterResult;
+import org.junit.platform.engine.TestDescriptor;
+import org.junit.platform.engine.UniqueId;
+import org.junit.platform.launcher.PostDiscoveryFilter;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.ToLongFunction;
+
+/**
+ * Keeps only the Cucumber scenarios assigned to the {@link Shard#current() current shard}. Every shard discovers
+ * the whole suite and computes the same assignment on its own: scenarios are weighted by their recorded
+ * {@link ScenarioDurations} ({@code shard.weight=duration}, the default) or all count the same
+ * ({@code shard.weight=count}), then handed out heaviest first to the least loaded shard. Ties are broken by
+ * scenario location and shard index, so the assignment does not depend on discovery order.
+ * <p>
+ * Does nothing outside a sharded run. Registered through
+ * {@code META-INF/services/org.junit.platform.launcher.PostDiscoveryFilter}.
+ */
+public class ShardFilter implements PostDiscoveryFilter {
+
+    public static final String WEIGHT_PROPERTY = "shard.weight";
+
+    private static final org.slf4j.Logger log = LoggerFactory.getLogger(ShardFilter.class);
+    private static final UniqueId.Segment CUCUMBER_ENGINE = UniqueId.forEngine("cucumber").getLastSegment();
+
+    private final Shard shard = Shard.current();
+    private Set<UniqueId> assigned;
+
+    @Override
+    public FilterResult apply(TestDescriptor descriptor) {
+        if (!shard.isSharded()) {
+            return FilterResult.included("not sharded");
+        }
+        // the engine descriptor is visited before any of its scenarios
+        if (CUCUMBER_ENGINE.equals(descriptor.getUniqueId().getLastSegment())) {
+            assigned = assign(descriptor);
+        }
+        if (!descriptor.isTest() || assigned == null) {
+            return FilterResult.included("container");
+        }
+        return assigned.contains(descriptor.getUniqueId())
+                ? FilterResult.included("assigned to shard " + shard)
+                : FilterResult.excluded("assigned to another shard");
+    }
+
+    private Set<UniqueId> assign(TestDescriptor engine) {
+        Map<String, UniqueId> scenarios = new HashMap<>();
+        engine.accept(descriptor -> {
+            if (descriptor.isTest()) {
+                String key = descriptor.getSource().flatMap(ScenarioDurations::key).orElse(descriptor.getUniqueId().toString());
+                scenarios.put(key, descriptor.getUniqueId());
+            }
+        });
+        ToLongFunction<String> weight = weight(System.getProperty(WEIGHT_PROPERTY, "duration"));
+        Map<String, Integer> shards = assign(scenarios.keySet(), weight, shard.count());
+
+        Set<UniqueId> selected = new HashSet<>();
+        long selectedWeight = 0;
+        for (Map.Entry<String, Integer> entry : shards.entrySet()) {
+            if (entry.getValue() == shard.index()) {
+                selected.add(scenarios.get(entry.getKey()));
+                selectedWeight += weight.applyAsLong(entry.getKey());
+            }
+        }
+        log.info("Shard {} runs {} of {} scenarios, weight {}", shard, selected.size(), scenarios.size(), selectedWeight);
+        return selected;
+    }
+
+    private static ToLongFunction<String> weight(String kind) {
+        switch (kind) {
+            case "count":
+                return key -> 1;
+            case "duration":
+                ScenarioDurations history = ScenarioDurations.load();
+                // scenarios without history count as the longest one; at least 1 so that an empty history
+                // still spreads them evenly
+                return key -> Math.max(1, history.get(key).orElseGet(history::longest));
+            default:
+                throw new IllegalArgumentException("Unknown " + WEIGHT_PROPERTY + " '" + kind + "', expected duration or count");
+        }
+    }
+
+    /**
+     * @return the shard index of each scenario key, balancing the total weight per shard
+     */
+    static Map<String, Integer> assign(Collection<String> keys, ToLongFunction<String> weight, int shards) {
+        List<String> heaviestFirst = new ArrayList<>(keys);
+        heaviestFirst.sort(Comparator.comparingLong(weight).reversed().thenComparing(Comparator.naturalOrder()));
+        long[] load = new long[shards];
+        Map<String, Integer> assignment = new HashMap<>();
+        for (String key : heaviestFirst) {
+            int lightest = 0;
+            for (int i = 1; i < shards; i++) {
+                if (load[i] < load[lightest]) {
+                    lightest = i;
+                }
+            }
+            load[lightest] += weight.applyAsLong(key);
+            assignment.put(key, lightest);
+        }
+        return assignment;
+    }
+}
@@ -0,0 +1,91 @@
+package org.example.scheduling;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.ToLongFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ShardFilterTest {
+
+    private static final List<String> KEYS = scenarioKeys(270);
+    private static final Map<String, Long> DURATIONS = durations(KEYS);
+    private static final ToLongFunction<String> BY_DURATION = DURATIONS::get;
+
+    @Test
+    void assignsTheSameShardsWhateverTheDiscoveryOrder() {
+        Map<String, Integer> expected = ShardFilter.assign(KEYS, BY_DURATION, 3);
+        for (long seed = 0; seed < 20; seed++) {
+            List<String> shuffled = new ArrayList<>(KEYS);
+            Collections.shuffle(shuffled, new Random(seed));
+
+            assertEquals(expected, ShardFilter.assign(shuffled, BY_DURATION, 3));
+        }
+    }
+
+    @Test
+    void assignsEveryScenarioToExactlyOneShard() {
+        for (int shards = 1; shards <= 8; shards++) {
+            Map<String, Integer> assignment = ShardFilter.assign(KEYS, BY_DURATION, shards);
+
+            assertEquals(KEYS.size(), assignment.size());
+            for (int shard : assignment.values()) {
+                assertTrue(shard >= 0 && shard < shards);
+            }
+        }
+    }
+
+    @Test
+    void balancesTheWeightWithinTheLongestScenario() {
+        long longest = DURATIONS.values().stream().mapToLong(Long::longValue).max().orElseThrow();
+        for (int shards = 2; shards <= 8; shards++) {
+            long[] load = load(ShardFilter.assign(KEYS, BY_DURATION, shards), BY_DURATION, shards);
+            long max = Long.MIN_VALUE;
+            long min = Long.MAX_VALUE;
+            for (long shardLoad : load) {
+                max = Math.max(max, shardLoad);
+                min = Math.min(min, shardLoad);
+            }
+            assertTrue(max - min <= longest, "unbalanced " + shards + " shards: " + min + ".." + max);
+        }
+    }
+
+    @Test
+    void splitsEvenlyWhenEveryScenarioCountsTheSame() {
+        long[] load = load(ShardFilter.assign(KEYS, key -> 1, 4), key -> 1, 4);
+
+        for (long shardLoad : load) {
+            assertTrue(shardLoad == 67 || shardLoad == 68, "shard with " + shardLoad + " of 270 scenarios");
+        }
+    }
+
+    private static long[] load(Map<String, Integer> assignment, ToLongFunction<String> weight, int shards) {
+        long[] load = new long[shards];
+        assignment.forEach((key, shard) -> load[shard] += weight.applyAsLong(key));
+        return load;
+    }
+
+    private static List<String> scenarioKeys(int count) {
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            keys.add("features/test" + (i % 3 + 1) + ".feature:" + (i / 3 * 3 + 3));
+        }
+        return keys;
+    }
+
+    private static Map<String, Long> durations(List<String> keys) {
+        Random random = new Random(42);
+        Map<String, Long> durations = new HashMap<>();
+        for (String key : keys) {
+            durations.put(key, 1000L + random.nextInt(8) * 1000L);
+        }
+        return durations;
+    }
+}
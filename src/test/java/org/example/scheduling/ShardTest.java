@@ -0,0 +1,61 @@
+package org.example.scheduling;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Paths;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ShardTest {
+
+    @Test
+    void isASingleShardOutsideAShardedRun() {
+        Shard shard = Shard.from(null, null);
+
+        assertFalse(shard.isFork());
+        assertFalse(shard.isSharded());
+        assertEquals("scenario-records.jsonl", shard.fileName("scenario-records.jsonl"));
+        assertEquals(9100, shard.port(9100));
+    }
+
+    @Test
+    void ignoresTheRequestedShardCountInTheParent() {
+        Shard parent = Shard.from(null, "3");
+
+        assertFalse(parent.isFork());
+        assertEquals(1, parent.count());
+    }
+
+    @Test
+    void isAForkEvenWhenItIsTheOnlyShard() {
+        Shard only = Shard.from("0", "1");
+
+        assertTrue(only.isFork());
+        assertFalse(only.isSharded());
+        assertEquals("scenario-records.jsonl", only.fileName("scenario-records.jsonl"));
+    }
+
+    @Test
+    void namesFilesAndPortsPerShard() {
+        Shard second = Shard.from("1", "3");
+
+        assertTrue(second.isFork());
+        assertTrue(second.isSharded());
+        assertEquals("scenario-records.shard-1.jsonl", second.fileName("scenario-records.jsonl"));
+        assertEquals("durations.shard-1", second.fileName("durations"));
+        assertEquals(Paths.get("target", "run-metrics.shard-1.json"), second.file(Paths.get("target", "run-metrics.json")));
+        assertEquals(9101, second.port(9100));
+        assertEquals(0, second.port(0));
+        assertEquals("2/3", second.toString());
+    }
+
+    @Test
+    void rejectsAnIndexOutsideTheCount() {
+        assertThrows(IllegalArgumentException.class, () -> new Shard(3, 3));
+        assertThrows(IllegalArgumentException.class, () -> new Shard(-1, 3));
+        assertThrows(IllegalArgumentException.class, () -> Shard.from("0", "0"));
+    }
+}
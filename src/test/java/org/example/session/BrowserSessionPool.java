@@ -0,0 +1,386 @@
+package org.example.session;
+
+import net.thucydides.core.guice.Injectors;
+import net.thucydides.core.util.EnvironmentVariables;
+import net.thucydides.core.webdriver.WebDriverFacade;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WrapsDriver;
+import org.openqa.selenium.chromium.HasCdp;
+import org.openqa.selenium.remote.Augmenter;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps the browser of each worker thread open between scenarios instead of quitting it.
+ * <p>
+ * At most {@code session.pool.max.sessions} sessions are open at once. A thread that needs a new one while the
+ * pool is full takes over the slot of the longest idle session, quitting it, or waits up to
+ * {@code session.pool.acquire.timeout} seconds for a session to be released. A kept session is health-checked
+ * before it is handed out again through the thread's {@code @Managed} driver.
+ * <p>
+ * Between scenarios extra windows are closed, the first one is sent to {@code about:blank}, and the whole browser
+ * is cleared over the Chrome DevTools Protocol: every cookie, and the storage of every origin in the history of
+ * each window. Browsers without CDP cannot be cleared that way, so their sessions are quit instead. Sessions are
+ * also quit when the scenario failed, when the health check or reset fails, and after
+ * {@code session.pool.max.uses} scenarios. Enabled with {@code session.pool.enabled = true}; Serenity must also keep
+ * the driver open ({@code serenity.restart.browser.for.each = never}).
+ */
+public class BrowserSessionPool {
+
+    private static final org.slf4j.Logger log = LoggerFactory.getLogger(BrowserSessionPool.class);
+
+    private final boolean enabled;
+    private final int maxSessions;
+    private final int maxUses;
+    private final long acquireTimeoutNanos;
+
+    private final ThreadLocal<Lease> leases = ThreadLocal.withInitial(Lease::new);
+    // sessions kept open between scenarios, longest idle first; guarded by this, like the lease state
+    private final Deque<Lease> idle = new ArrayDeque<>();
+    private int openSessions;
+
+    private final AtomicBoolean warnedWithoutCdp = new AtomicBoolean();
+    private final LongAdder created = new LongAdder();
+    private final LongAdder reused = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+    private final LongAdder creationNanos = new LongAdder();
+
+    public BrowserSessionPool(boolean enabled, int maxSessions, int maxUses, Duration acquireTimeout) {
+        this.enabled = enabled;
+        this.maxSessions = Math.max(1, maxSessions);
+        this.maxUses = maxUses;
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+    }
+
+    public static BrowserSessionPool instance() {
+        return Holder.INSTANCE;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Marks the start of a scenario on the current thread: hands out the thread's kept session if it is still
+     * healthy, or opens a new one as soon as the pool has room for it. The new session is opened eagerly so its
+     * creation time can be recorded.
+     *
+     * @throws IllegalStateException if the pool stays full for longer than the acquire timeout
+     */
+    public void acquire(WebDriver driver) {
+        if (!enabled) {
+            return;
+        }
+        Lease lease = leases.get();
+        boolean kept;
+        synchronized (this) {
+            awaitQuit(lease);
+            kept = lease.open;
+            idle.remove(lease);
+        }
+        if (kept) {
+            if (isHealthy(driver)) {
+                reused.increment();
+                lease.driver = driver;
+                lease.uses++;
+                return;
+            }
+            evict(lease);
+        }
+
+        Lease replaced = reserve();
+        if (replaced != null) {
+            quit(replaced.driver);
+            synchronized (this) {
+                replaced.quitting = false;
+                notifyAll();
+            }
+        }
+        long start = System.nanoTime();
+        try {
+            driver.getWindowHandle();
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                openSessions--;
+                notifyAll();
+            }
+            throw e;
+        }
+        creationNanos.add(System.nanoTime() - start);
+        created.increment();
+        synchronized (this) {
+            lease.driver = driver;
+            lease.browser = null;
+            lease.uses = 1;
+            lease.open = true;
+        }
+    }
+
+    /**
+     * Ends the scenario on the current thread, either resetting the session for the next one or quitting it.
+     */
+    public void release(WebDriver driver, boolean scenarioFailed) {
+        if (!enabled) {
+            driver.quit();
+            return;
+        }
+        Lease lease = leases.get();
+        boolean open;
+        synchronized (this) {
+            open = lease.open;
+        }
+        if (!open) {
+            driver.quit();
+            return;
+        }
+        if (scenarioFailed || lease.uses >= maxUses || !reset(lease)) {
+            evict(lease);
+            return;
+        }
+        synchronized (this) {
+            idle.addLast(lease);
+            notifyAll();
+        }
+    }
+
+    /**
+     * Waits for room for one more session, taking it from the longest idle session when the pool is full.
+     *
+     * @return the idle session whose slot was taken, to be quit by the caller, or {@code null}
+     */
+    private synchronized Lease reserve() {
+        long deadline = System.nanoTime() + acquireTimeoutNanos;
+        while (openSessions >= maxSessions) {
+            Lease longestIdle = idle.pollFirst();
+            if (longestIdle != null) {
+                longestIdle.open = false;
+                longestIdle.quitting = true;
+                evicted.increment();
+                return longestIdle;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                throw new IllegalStateException("No browser session became available within "
+                        + TimeUnit.NANOSECONDS.toSeconds(acquireTimeoutNanos) + " s, all " + maxSessions + " are in use");
+            }
+            try {
+                TimeUnit.NANOSECONDS.timedWait(this, remaining);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for a browser session", e);
+            }
+        }
+        openSessions++;
+        return null;
+    }
+
+    /**
+     * Waits until another thread has finished quitting the session it took over from this lease.
+     */
+    private void awaitQuit(Lease lease) {
+        while (lease.quitting) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for a browser session", e);
+            }
+        }
+    }
+
+    private boolean isHealthy(WebDriver driver) {
+        try {
+            driver.getWindowHandle();
+            return true;
+        } catch (RuntimeException e) {
+            log.debug("Kept browser session failed the health check, it will be replaced", e);
+            return false;
+        }
+    }
+
+    private boolean reset(Lease lease) {
+        WebDriver driver = lease.driver;
+        try {
+            HasCdp cdp = cdp(lease);
+            if (cdp == null) {
+                if (warnedWithoutCdp.compareAndSet(false, true)) {
+                    log.warn("The browser does not support the DevTools Protocol, so it cannot be cleared between "
+                            + "scenarios; its sessions are quit instead of kept");
+                }
+                return false;
+            }
+            Set<String> handles = driver.getWindowHandles();
+            if (handles.isEmpty()) {
+                return false;
+            }
+            String first = handles.iterator().next();
+            Set<String> origins = new LinkedHashSet<>();
+            for (String handle : handles) {
+                driver.switchTo().window(handle);
+                origins.addAll(visitedOrigins(cdp));
+                if (!handle.equals(first)) {
+                    driver.close();
+                }
+            }
+            driver.switchTo().window(first);
+            driver.get("about:blank");
+            cdp.executeCdpCommand("Network.clearBrowserCookies", Map.of());
+            for (String origin : origins) {
+                cdp.executeCdpCommand("Storage.clearDataForOrigin", Map.of("origin", origin, "storageTypes", "all"));
+            }
+            return true;
+        } catch (RuntimeException e) {
+            log.debug("Unable to reset browser session, it will be replaced", e);
+            return false;
+        }
+    }
+
+    /**
+     * @return the DevTools access of the browser behind the thread's driver, or {@code null} if it has none
+     */
+    private static HasCdp cdp(Lease lease) {
+        WebDriver browser = unwrap(lease.driver);
+        if (browser != lease.browser) {
+            lease.browser = browser;
+            WebDriver augmented = browser instanceof RemoteWebDriver && !(browser instanceof HasCdp)
+                    ? new Augmenter().augment(browser)
+                    : browser;
+            lease.cdp = augmented instanceof HasCdp ? (HasCdp) augmented : null;
+        }
+        return lease.cdp;
+    }
+
+    private static WebDriver unwrap(WebDriver driver) {
+        WebDriver unwrapped = driver;
+        while (true) {
+            WebDriver next;
+            if (unwrapped instanceof WebDriverFacade) {
+                next = ((WebDriverFacade) unwrapped).getProxiedDriver();
+            } else if (unwrapped instanceof WrapsDriver) {
+                next = ((WrapsDriver) unwrapped).getWrappedDriver();
+            } else {
+                return unwrapped;
+            }
+            if (next == null || next == unwrapped) {
+                return unwrapped;
+            }
+            unwrapped = next;
+        }
+    }
+
+    private static Set<String> visitedOrigins(HasCdp cdp) {
+        Set<String> origins = new LinkedHashSet<>();
+        Object entries = cdp.executeCdpCommand("Page.getNavigationHistory", Map.of()).get("entries");
+        if (entries instanceof List) {
+            for (Object entry : (List<?>) entries) {
+                if (entry instanceof Map) {
+                    origin(String.valueOf(((Map<?, ?>) entry).get("url"))).ifPresent(origins::add);
+                }
+            }
+        }
+        return origins;
+    }
+
+    private static Optional<String> origin(String url) {
+        try {
+            URI uri = URI.create(url);
+            if (!"http".equals(uri.getScheme()) && !"https".equals(uri.getScheme()) || uri.getHost() == null) {
+                return Optional.empty();
+            }
+            return Optional.of(uri.getScheme() + "://" + uri.getHost() + (uri.getPort() < 0 ? "" : ":" + uri.getPort()));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    private void evict(Lease lease) {
+        synchronized (this) {
+            if (!lease.open) {
+                return;
+            }
+            lease.open = false;
+            openSessions--;
+            notifyAll();
+        }
+        evicted.increment();
+        quit(lease.driver);
+    }
+
+    private static void quit(WebDriver driver) {
+        try {
+            driver.quit();
+        } catch (RuntimeException e) {
+            log.debug("Unable to quit evicted browser session", e);
+        }
+    }
+
+    public long created() {
+        return created.sum();
+    }
+
+    public long reused() {
+        return reused.sum();
+    }
+
+    public long evicted() {
+        return evicted.sum();
+    }
+
+    public synchronized int openSessions() {
+        return openSessions;
+    }
+
+    /**
+     * @return session creation time avoided by reuse, estimated from the average creation time
+     */
+    public long savedMillis() {
+        long sessions = created.sum();
+        if (sessions == 0) {
+            return 0;
+        }
+        return TimeUnit.NANOSECONDS.toMillis(creationNanos.sum() / sessions * reused.sum());
+    }
+
+    public void logSummary() {
+        if (enabled) {
+            log.info("Browser session pool: {} created, {} reused, {} evicted, ~{} ms of session creation saved",
+                    created(), reused(), evicted(), savedMillis());
+        }
+    }
+
+    private static class Lease {
+        boolean open;
+        // set while another thread quits this idle session to take its slot
+        boolean quitting;
+        int uses;
+        WebDriver driver;
+        // the browser the DevTools access below was looked up for
+        WebDriver browser;
+        HasCdp cdp;
+    }
+
+    private static class Holder {
+        private static final BrowserSessionPool INSTANCE = fromEnvironment(Injectors.getInjector().getInstance(EnvironmentVariables.class));
+
+        private static BrowserSessionPool fromEnvironment(EnvironmentVariables environmentVariables) {
+            return new BrowserSessionPool(
+                    environmentVariables.getPropertyAsBoolean("session.pool.enabled", false),
+                    environmentVariables.getPropertyAsInteger("session.pool.max.sessions", 50),
+                    environmentVariables.getPropertyAsInteger("session.pool.max.uses", 20),
+                    Duration.ofSeconds(environmentVariables.getPropertyAsInteger("session.pool.acquire.timeout", 300)));
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package org.example.session;
+
+import org.example.stub.StubWebDriverServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.ImmutableCapabilities;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WrapsDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.remote.Command;
+import org.openqa.selenium.remote.HttpCommandExecutor;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.remote.Response;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.net.URL;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the pool against {@link StubWebDriverServer}, with each thread's driver opening a new remote session
+ * whenever it is used after a quit, the way Serenity's {@code @Managed} driver does.
+ */
+class BrowserSessionPoolTest {
+
+    private final List<Command> commands = new CopyOnWriteArrayList<>();
+    private StubWebDriverServer server;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = new StubWebDriverServer(0, Map.of());
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop();
+    }
+
+    @Test
+    void reusesTheSessionAndClearsEveryVisitedOrigin() {
+        BrowserSessionPool pool = pool(2, 20);
+        WebDriver driver = managedDriver(new ChromeOptions());
+
+        pool.acquire(driver);
+        String session = sessionId(driver);
+        driver.get("https://a.example/login");
+        driver.get("https://b.example:8443/cart");
+        pool.release(driver, false);
+        pool.acquire(driver);
+
+        assertEquals(session, sessionId(driver));
+        assertEquals(1, pool.created());
+        assertEquals(1, pool.reused());
+        assertEquals(List.of("Network.clearBrowserCookies", "Storage.clearDataForOrigin https://a.example",
+                "Storage.clearDataForOrigin https://b.example:8443"), clearCommands());
+        pool.release(driver, false);
+    }
+
+    @Test
+    void quitsTheSessionOfAFailedScenario() {
+        BrowserSessionPool pool = pool(2, 20);
+        WebDriver driver = managedDriver(new ChromeOptions());
+
+        pool.acquire(driver);
+        String session = sessionId(driver);
+        pool.release(driver, true);
+        pool.acquire(driver);
+
+        assertNotEquals(session, sessionId(driver));
+        assertEquals(2, pool.created());
+        assertEquals(1, pool.evicted());
+        assertEquals(1, server.openSessions());
+    }
+
+    @Test
+    void quitsTheSessionAfterMaxUses() {
+        BrowserSessionPool pool = pool(2, 2);
+        WebDriver driver = managedDriver(new ChromeOptions());
+
+        for (int scenario = 0; scenario < 4; scenario++) {
+            pool.acquire(driver);
+            pool.release(driver, false);
+        }
+
+        assertEquals(2, pool.created());
+        assertEquals(2, pool.reused());
+        assertEquals(0, server.openSessions());
+    }
+
+    @Test
+    void replacesAKeptSessionThatFailsTheHealthCheck() {
+        BrowserSessionPool pool = pool(2, 20);
+        WebDriver driver = managedDriver(new ChromeOptions());
+
+        pool.acquire(driver);
+        String session = sessionId(driver);
+        pool.release(driver, false);
+        // the session is gone from the server, as when the grid node restarts
+        int port = server.port();
+        server.stop();
+        server = restartedOn(port);
+        pool.acquire(driver);
+
+        assertNotEquals(session, sessionId(driver));
+        assertEquals(0, pool.reused());
+        assertEquals(1, pool.evicted());
+        assertEquals(1, pool.openSessions());
+    }
+
+    @Test
+    void takesOverAnIdleSessionWhenThePoolIsFull() throws Exception {
+        BrowserSessionPool pool = pool(1, 20);
+        WebDriver first = managedDriver(new ChromeOptions());
+        WebDriver second = managedDriver(new ChromeOptions());
+
+        CompletableFuture.runAsync(() -> {
+            pool.acquire(first);
+            pool.release(first, false);
+        }).get(10, TimeUnit.SECONDS);
+        pool.acquire(second);
+
+        assertEquals(1, pool.openSessions());
+        assertEquals(1, server.openSessions());
+        assertEquals(1, server.peakSessions());
+        assertEquals(1, pool.evicted());
+    }
+
+    @Test
+    void failsWhenEverySessionStaysInUse() throws Exception {
+        BrowserSessionPool pool = new BrowserSessionPool(true, 1, 20, Duration.ofMillis(200));
+        WebDriver first = managedDriver(new ChromeOptions());
+        WebDriver second = managedDriver(new ChromeOptions());
+
+        CompletableFuture.runAsync(() -> pool.acquire(first)).get(10, TimeUnit.SECONDS);
+
+        assertThrows(IllegalStateException.class, () -> pool.acquire(second));
+        assertEquals(1, server.peakSessions());
+    }
+
+    @Test
+    void quitsSessionsOfBrowsersWithoutDevTools() {
+        BrowserSessionPool pool = pool(2, 20);
+        WebDriver driver = managedDriver(new ImmutableCapabilities("browserName", "firefox"));
+
+        pool.acquire(driver);
+        pool.release(driver, false);
+
+        assertEquals(1, pool.evicted());
+        assertEquals(0, server.openSessions());
+        assertTrue(clearCommands().isEmpty());
+    }
+
+    private static BrowserSessionPool pool(int maxSessions, int maxUses) {
+        return new BrowserSessionPool(true, maxSessions, maxUses, Duration.ofSeconds(5));
+    }
+
+    private static StubWebDriverServer restartedOn(int port) {
+        try {
+            StubWebDriverServer restarted = new StubWebDriverServer(port, Map.of());
+            restarted.start();
+            return restarted;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private List<String> clearCommands() {
+        return commands.stream()
+                .filter(command -> command.getName().equals("executeCdpCommand"))
+                .map(command -> {
+                    String cmd = String.valueOf(command.getParameters().get("cmd"));
+                    Object params = command.getParameters().get("params");
+                    return params instanceof Map && ((Map<?, ?>) params).containsKey("origin")
+                            ? cmd + " " + ((Map<?, ?>) params).get("origin")
+                            : cmd;
+                })
+                .filter(command -> !command.equals("Page.getNavigationHistory"))
+                .collect(Collectors.toList());
+    }
+
+    private static String sessionId(WebDriver driver) {
+        return ((RemoteWebDriver) ((WrapsDriver) driver).getWrappedDriver()).getSessionId().toString();
+    }
+
+    /**
+     * @return a driver that opens a session on the stub on first use, and again on the first use after a quit
+     */
+    private WebDriver managedDriver(Capabilities capabilities) {
+        RemoteWebDriver[] current = new RemoteWebDriver[1];
+        return (WebDriver) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{WebDriver.class, WrapsDriver.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("quit")) {
+                        RemoteWebDriver quitting = current[0];
+                        current[0] = null;
+                        if (quitting != null) {
+                            quitting.quit();
+                        }
+                        return null;
+                    }
+                    if (current[0] == null) {
+                        current[0] = new RemoteWebDriver(recordingExecutor(), capabilities);
+                    }
+                    if (method.getName().equals("getWrappedDriver")) {
+                        return current[0];
+                    }
+                    try {
+                        return method.invoke(current[0], args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    private HttpCommandExecutor recordingExecutor() {
+        try {
+            return new HttpCommandExecutor(new URL("http://localhost:" + server.port() + "/wd/hub")) {
+                @Override
+                public Response execute(Command command) throws IOException {
+                    commands.add(command);
+                    return super.execute(command);
+                }
+            };
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
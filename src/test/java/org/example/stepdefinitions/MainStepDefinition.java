@@ -1,33 +1,75 @@
 package org.example.stepdefinitions;
 
 import io.cucumber.java.After;
+import io.cucumber.java.AfterAll;
+import io.cucumber.java.AfterStep;
+import io.cucumber.java.Before;
+import io.cucumber.java.BeforeAll;
+import io.cucumber.java.Scenario;
 import io.cucumber.java.en.When;
+import net.serenitybdd.core.Serenity;
 import net.thucydides.core.annotations.Managed;
-import org.openqa.selenium.TimeoutException;
+import org.example.performance.PerformanceLogCollector;
+import org.example.session.BrowserSessionPool;
+import org.example.stub.StubWebDriverServer;
+import org.example.timing.StepTimer;
+import org.example.tracing.CommandTracer;
 import org.openqa.selenium.WebDriver;
-import org.openqa.selenium.support.ui.WebDriverWait;
 
-import java.time.Duration;
+import java.time.Instant;
 
 public class MainStepDefinition {
 
     @Managed
     WebDriver driver;
 
+    private final PerformanceLogCollector performanceLog = PerformanceLogCollector.fromEnvironment();
+
+    @BeforeAll
+    public static void startStubServer() {
+        StubWebDriverServer.startIfEnabled();
+    }
+
+    @Before
+    public void setUp() {
+        CommandTracer.instance().startScenario();
+        BrowserSessionPool.instance().acquire(driver);
+    }
+
     @When("I run mock step in {int} seconds")
     public void runMockStep(int seconds) {
-        try {
-            new WebDriverWait(driver, Duration.ofSeconds(seconds))
-                    .until(driver -> {
-                        driver.get("https://www.google.com");
-                        return false;
-                    });
-        } catch (TimeoutException ignore) {
-        }
+        StepTimer timer = StepTimer.instance();
+        Instant started = timer.now();
+        driver.get("https://www.google.com");
+        timer.holdUntil(started.plusSeconds(seconds));
+    }
+
+    @AfterStep
+    public void drainPerformanceLog() {
+        performanceLog.drain(driver);
     }
 
     @After
-    public void tearDown() {
-        driver.quit();
+    public void tearDown(Scenario scenario) {
+        performanceLog.drain(driver);
+        String networkTimings = performanceLog.summary();
+        if (networkTimings != null) {
+            Serenity.recordReportData().withTitle("Network timings").andContents(networkTimings);
+        }
+        String commandTimings = CommandTracer.instance().finishScenario();
+        if (commandTimings != null) {
+            Serenity.recordReportData().withTitle("WebDriver commands").andContents(commandTimings);
+        }
+        BrowserSessionPool.instance().release(driver, scenario.isFailed());
+    }
+
+    @AfterAll
+    public static void logSessionSummaries() {
+        BrowserSessionPool.instance().logSummary();
+        CommandTracer.instance().logSessionSummary();
+        StubWebDriverServer stubServer = StubWebDriverServer.running();
+        if (stubServer != null) {
+            stubServer.logSummary();
+        }
     }
-}
+}
\ No newline at end of file
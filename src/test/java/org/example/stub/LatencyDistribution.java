@@ -0,0 +1,106 @@
+package org.example.stub;
+
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Delay applied by {@link StubWebDriverServer} before answering a request, in milliseconds:
+ * {@code none}, {@code fixed(ms)}, {@code uniform(min,max)} or {@code lognormal(median,sigma)}.
+ */
+public abstract class LatencyDistribution {
+
+    private static final Pattern SYNTAX = Pattern.compile("\\s*(none|fixed|uniform|lognormal)\\s*(?:\\(([^)]*)\\))?\\s*");
+
+    public static final LatencyDistribution NONE = new LatencyDistribution("none") {
+        @Override
+        public long sampleMillis(Random random) {
+            return 0;
+        }
+    };
+
+    private final String description;
+
+    private LatencyDistribution(String description) {
+        this.description = description;
+    }
+
+    public abstract long sampleMillis(Random random);
+
+    public static LatencyDistribution parse(String value) {
+        Matcher matcher = SYNTAX.matcher(value == null ? "none" : value);
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("Unknown latency distribution '" + value
+                    + "', expected none, fixed(ms), uniform(min,max) or lognormal(median,sigma)");
+        }
+        String kind = matcher.group(1);
+        double[] args = arguments(matcher.group(2));
+        switch (kind) {
+            case "fixed":
+                require(value, args, 1);
+                return fixed((long) args[0]);
+            case "uniform":
+                require(value, args, 2);
+                return uniform((long) args[0], (long) args[1]);
+            case "lognormal":
+                require(value, args, 2);
+                return lognormal(args[0], args[1]);
+            default:
+                return NONE;
+        }
+    }
+
+    public static LatencyDistribution fixed(long millis) {
+        return new LatencyDistribution("fixed(" + millis + ")") {
+            @Override
+            public long sampleMillis(Random random) {
+                return millis;
+            }
+        };
+    }
+
+    public static LatencyDistribution uniform(long min, long max) {
+        return new LatencyDistribution("uniform(" + min + "," + max + ")") {
+            @Override
+            public long sampleMillis(Random random) {
+                return max <= min ? min : min + (long) (random.nextDouble() * (max - min + 1));
+            }
+        };
+    }
+
+    /**
+     * Long-tailed latency, as seen from a real browser: half of the samples are below the median.
+     */
+    public static LatencyDistribution lognormal(double median, double sigma) {
+        double mu = Math.log(median);
+        return new LatencyDistribution("lognormal(" + median + "," + sigma + ")") {
+            @Override
+            public long sampleMillis(Random random) {
+                return Math.round(Math.exp(mu + sigma * random.nextGaussian()));
+            }
+        };
+    }
+
+    private static double[] arguments(String arguments) {
+        if (arguments == null || arguments.isBlank()) {
+            return new double[0];
+        }
+        String[] parts = arguments.split(",");
+        double[] values = new double[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            values[i] = Double.parseDouble(parts[i].trim());
+        }
+        return values;
+    }
+
+    private static void require(String value, double[] args, int count) {
+        if (args.length != count) {
+            throw new IllegalArgumentException("Latency distribution '" + value + "' needs " + count + " argument(s)");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return description;
+    }
+}
@@ -0,0 +1,436 @@
+package org.example.stub;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import net.serenitybdd.core.environment.EnvironmentSpecificConfiguration;
+import net.thucydides.core.guice.Injectors;
+import net.thucydides.core.util.EnvironmentVariables;
+import org.example.scheduling.Shard;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonOutput;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-process W3C WebDriver endpoint that answers like a browser without running one, so the suite can be run
+ * at high concurrency to measure the test code, the codec and the scheduling rather than Chrome or Selenoid.
+ * <p>
+ * Supports session create/delete, navigation, script execution, element lookup and interaction, logs,
+ * screenshots, windows, cookies, timeouts and Chrome's DevTools command endpoint, where
+ * {@code Page.getNavigationHistory} lists the URLs the session navigated to and every other command succeeds
+ * with an empty result; anything else succeeds with a {@code null} value. Each kind of
+ * {@link Endpoint} waits for a delay drawn from its {@link LatencyDistribution},
+ * {@code stub.webdriver.latency.<endpoint>}, and counts its requests. Started by the glue when
+ * {@code stub.webdriver.enabled} is set; the {@code stub} environment in {@code serenity.conf} points the remote
+ * driver at it.
+ * <p>
+ * The JDK server closes kept-alive connections beyond {@code sun.net.httpserver.maxIdleConnections}, 200 by
+ * default, which the driver clients then fail on at high concurrency. It reads that property once per JVM, so the
+ * build raises it on the command line of every JVM that runs the suite.
+ */
+public class StubWebDriverServer {
+
+    private static final org.slf4j.Logger log = LoggerFactory.getLogger(StubWebDriverServer.class);
+
+    private static final Json JSON = new Json();
+    private static final String ELEMENT_KEY = "element-6066-11e4-a52e-4f735466cecf";
+    private static final String WINDOW_HANDLE = "stub-window";
+    // 1x1 transparent PNG
+    private static final String SCREENSHOT = "iVBORw0KGgoAAAANSUhEUgAAAAEAAAABCAQAAAC1HAwCAAAAC0lEQVR42mNkYAAAAAYAAjCB0C8AAAAASUVORK5CYII=";
+
+    private static volatile StubWebDriverServer running;
+
+    public enum Endpoint {
+        SESSION, QUIT, NAVIGATE, EXECUTE, FIND, ELEMENT, LOGS, SCREENSHOT, WINDOW, OTHER;
+
+        String configKey() {
+            return "stub.webdriver.latency." + name().toLowerCase();
+        }
+    }
+
+    private final Map<Endpoint, LatencyDistribution> latencies = new EnumMap<>(Endpoint.class);
+    private final Map<Endpoint, LongAdder> requests = new EnumMap<>(Endpoint.class);
+    private final ConcurrentMap<String, StubSession> sessions = new ConcurrentHashMap<>();
+    private final AtomicInteger peakSessions = new AtomicInteger();
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    public StubWebDriverServer(int port, Map<Endpoint, LatencyDistribution> latencies) throws IOException {
+        this.latencies.putAll(latencies);
+        for (Endpoint endpoint : Endpoint.values()) {
+            this.latencies.putIfAbsent(endpoint, LatencyDistribution.NONE);
+            requests.put(endpoint, new LongAdder());
+        }
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "stub-webdriver");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 1024);
+        server.createContext("/", this::handle);
+        server.setExecutor(executor);
+    }
+
+    /**
+     * Starts the server configured in {@code serenity.conf} once per JVM, if {@code stub.webdriver.enabled} is set.
+     * In a sharded run the forks share the one started by {@link org.example.runner.ShardedSuiteRunner}.
+     */
+    public static synchronized void startIfEnabled() {
+        if (running != null || Shard.current().isFork()) {
+            return;
+        }
+        // resolved per environment, so that -Denvironment=stub turns it on
+        EnvironmentSpecificConfiguration configuration = EnvironmentSpecificConfiguration.from(
+                Injectors.getInjector().getInstance(EnvironmentVariables.class));
+        if (!configuration.getOptionalProperty("stub.webdriver.enabled").map(Boolean::parseBoolean).orElse(false)) {
+            return;
+        }
+        Map<Endpoint, LatencyDistribution> latencies = new EnumMap<>(Endpoint.class);
+        for (Endpoint endpoint : Endpoint.values()) {
+            latencies.put(endpoint, LatencyDistribution.parse(configuration.getOptionalProperty(endpoint.configKey()).orElse("none")));
+        }
+        int port = configuration.getOptionalProperty("stub.webdriver.port").map(Integer::parseInt).orElse(4499);
+        try {
+            StubWebDriverServer server = new StubWebDriverServer(port, latencies);
+            server.start();
+            running = server;
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to start the stub WebDriver server on port " + port, e);
+        }
+    }
+
+    /**
+     * @return the server started by {@link #startIfEnabled()}, or {@code null}
+     */
+    public static StubWebDriverServer running() {
+        return running;
+    }
+
+    /**
+     * Stops the server started by {@link #startIfEnabled()}, if any, so that the next call starts a new one.
+     */
+    public static synchronized void stopRunning() {
+        if (running != null) {
+            running.stop();
+            running = null;
+        }
+    }
+
+    public void start() {
+        server.start();
+        log.info("Stub WebDriver server listening on http://localhost:{}/wd/hub with latencies {}", port(), latencies);
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    public Map<String, Long> requestCounts() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        requests.forEach((endpoint, count) -> counts.put(endpoint.name().toLowerCase(), count.sum()));
+        return counts;
+    }
+
+    public int openSessions() {
+        return sessions.size();
+    }
+
+    public int peakSessions() {
+        return peakSessions.get();
+    }
+
+    public void logSummary() {
+        log.info("Stub WebDriver server: {} sessions open, peak {}, requests {}", openSessions(), peakSessions(), requestCounts());
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            byte[] body = readBody(exchange.getRequestBody());
+            String path = exchange.getRequestURI().getPath();
+            if (path.startsWith("/wd/hub")) {
+                path = path.substring("/wd/hub".length());
+            }
+            String[] segments = path.replaceAll("^/+|/+$", "").split("/");
+            Response response = route(exchange.getRequestMethod(), segments, body);
+            requests.get(response.endpoint).increment();
+            long delay = latencies.get(response.endpoint).sampleMillis(ThreadLocalRandom.current());
+            if (delay > 0) {
+                Thread.sleep(delay);
+            }
+            send(exchange, response.status, Collections.singletonMap("value", response.value));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            send(exchange, 500, error("unknown error", "Interrupted"));
+        } catch (RuntimeException e) {
+            send(exchange, 500, error("unknown error", String.valueOf(e)));
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private Response route(String method, String[] segments, byte[] body) {
+        if (segments.length == 0 || !"session".equals(segments[0])) {
+            return new Response(Endpoint.OTHER, "status".equals(segments[0]) ? status() : null);
+        }
+        if (segments.length == 1) {
+            return "POST".equals(method) ? new Response(Endpoint.SESSION, newSession(body)) : notFound(Endpoint.OTHER);
+        }
+        StubSession session = sessions.get(segments[1]);
+        if (session == null) {
+            return new Response(Endpoint.OTHER, 404, error("invalid session id", "No active session with id " + segments[1]));
+        }
+        if (segments.length == 2) {
+            if ("DELETE".equals(method)) {
+                sessions.remove(segments[1]);
+                return new Response(Endpoint.QUIT, null);
+            }
+            return notFound(Endpoint.OTHER);
+        }
+        String command = segments[2];
+        switch (command) {
+            case "url":
+                if ("POST".equals(method)) {
+                    session.navigate(String.valueOf(parse(body).getOrDefault("url", "about:blank")));
+                    return new Response(Endpoint.NAVIGATE, null);
+                }
+                return new Response(Endpoint.NAVIGATE, session.url);
+            case "back":
+            case "forward":
+            case "refresh":
+                return new Response(Endpoint.NAVIGATE, null);
+            case "title":
+                return new Response(Endpoint.NAVIGATE, "Stub page");
+            case "source":
+                return new Response(Endpoint.NAVIGATE, "<html><head><title>Stub page</title></head><body></body></html>");
+            case "execute":
+                return new Response(Endpoint.EXECUTE, executeScript(body));
+            case "element":
+                if (segments.length == 3 || (segments.length == 4 && "active".equals(segments[3]))) {
+                    return new Response(Endpoint.FIND, newElement());
+                }
+                return element(method, segments);
+            case "elements":
+                return new Response(Endpoint.FIND, List.of(newElement()));
+            case "log":
+            case "se":
+                if (segments.length > 4 && "types".equals(segments[4])) {
+                    return new Response(Endpoint.LOGS, List.of("browser", "driver", "performance"));
+                }
+                return new Response(Endpoint.LOGS, Collections.emptyList());
+            case "screenshot":
+                return new Response(Endpoint.SCREENSHOT, SCREENSHOT);
+            case "window":
+                return window(segments);
+            case "cookie":
+                return new Response(Endpoint.OTHER, "GET".equals(method) && segments.length == 3 ? Collections.emptyList() : null);
+            case "goog":
+                return new Response(Endpoint.OTHER, devTools(session, body));
+            case "timeouts":
+                return new Response(Endpoint.OTHER, "GET".equals(method) ? Map.of("implicit", 0, "pageLoad", 300000, "script", 30000) : null);
+            default:
+                return new Response(Endpoint.OTHER, null);
+        }
+    }
+
+    private Map<String, Object> newSession(byte[] body) {
+        Map<String, Object> capabilities = new LinkedHashMap<>();
+        capabilities.put("browserName", "chrome");
+        capabilities.put("browserVersion", "stub");
+        capabilities.put("platformName", "linux");
+        Object requested = parse(body).get("capabilities");
+        if (requested instanceof Map) {
+            Object alwaysMatch = ((Map<?, ?>) requested).get("alwaysMatch");
+            Object firstMatch = ((Map<?, ?>) requested).get("firstMatch");
+            copy(alwaysMatch, capabilities);
+            if (firstMatch instanceof List && !((List<?>) firstMatch).isEmpty()) {
+                copy(((List<?>) firstMatch).get(0), capabilities);
+            }
+        }
+        String sessionId = UUID.randomUUID().toString().replace("-", "");
+        sessions.put(sessionId, new StubSession());
+        peakSessions.accumulateAndGet(sessions.size(), Math::max);
+
+        Map<String, Object> value = new LinkedHashMap<>();
+        value.put("sessionId", sessionId);
+        value.put("capabilities", capabilities);
+        return value;
+    }
+
+    private Object executeScript(byte[] body) {
+        Object script = parse(body).get("script");
+        // enough for page load waits; every other script returns null
+        return script != null && script.toString().contains("document.readyState") ? "complete" : null;
+    }
+
+    private static Map<String, Object> devTools(StubSession session, byte[] body) {
+        if (!"Page.getNavigationHistory".equals(parse(body).get("cmd"))) {
+            return Collections.emptyMap();
+        }
+        List<Map<String, Object>> entries = new ArrayList<>();
+        for (String url : session.history()) {
+            entries.add(Map.of("id", entries.size() + 1, "url", url, "userTypedURL", url, "title", "Stub page",
+                    "transitionType", "typed"));
+        }
+        return Map.of("currentIndex", entries.size() - 1, "entries", entries);
+    }
+
+    private Response element(String method, String[] segments) {
+        String property = segments.length > 4 ? segments[4] : "";
+        switch (property) {
+            case "element":
+                return new Response(Endpoint.FIND, newElement());
+            case "elements":
+                return new Response(Endpoint.FIND, List.of(newElement()));
+            case "text":
+                return new Response(Endpoint.ELEMENT, "Stub text");
+            case "name":
+                return new Response(Endpoint.ELEMENT, "div");
+            case "displayed":
+            case "enabled":
+                return new Response(Endpoint.ELEMENT, true);
+            case "selected":
+                return new Response(Endpoint.ELEMENT, false);
+            case "css":
+                return new Response(Endpoint.ELEMENT, "");
+            case "rect":
+                return new Response(Endpoint.ELEMENT, rect(0, 0, 100, 20));
+            case "screenshot":
+                return new Response(Endpoint.SCREENSHOT, SCREENSHOT);
+            default:
+                return new Response(Endpoint.ELEMENT, null);
+        }
+    }
+
+    private Response window(String[] segments) {
+        if (segments.length == 3) {
+            return new Response(Endpoint.WINDOW, WINDOW_HANDLE);
+        }
+        switch (segments[3]) {
+            case "handles":
+                return new Response(Endpoint.WINDOW, List.of(WINDOW_HANDLE));
+            case "rect":
+            case "maximize":
+            case "minimize":
+            case "fullscreen":
+                return new Response(Endpoint.WINDOW, rect(0, 0, 1920, 1080));
+            default:
+                return new Response(Endpoint.WINDOW, null);
+        }
+    }
+
+    private static Map<String, Object> newElement() {
+        return Collections.singletonMap(ELEMENT_KEY, UUID.randomUUID().toString());
+    }
+
+    private static Map<String, Object> rect(int x, int y, int width, int height) {
+        return Map.of("x", x, "y", y, "width", width, "height", height);
+    }
+
+    private static Map<String, Object> status() {
+        return Map.of("ready", true, "message", "Stub WebDriver server");
+    }
+
+    private static Map<String, Object> error(String error, String message) {
+        Map<String, Object> value = new HashMap<>();
+        value.put("error", error);
+        value.put("message", message);
+        value.put("stacktrace", "");
+        return value;
+    }
+
+    private static Response notFound(Endpoint endpoint) {
+        return new Response(endpoint, 404, error("unknown command", "Unknown command"));
+    }
+
+    private static void copy(Object source, Map<String, Object> target) {
+        if (source instanceof Map) {
+            ((Map<?, ?>) source).forEach((key, value) -> target.put(String.valueOf(key), value));
+        }
+    }
+
+    private static Map<String, Object> parse(byte[] body) {
+        if (body.length == 0) {
+            return Collections.emptyMap();
+        }
+        Object parsed = JSON.toType(new String(body, StandardCharsets.UTF_8), Json.OBJECT_TYPE);
+        @SuppressWarnings("unchecked")
+        Map<String, Object> map = parsed instanceof Map ? (Map<String, Object>) parsed : Collections.emptyMap();
+        return map;
+    }
+
+    private static byte[] readBody(InputStream stream) throws IOException {
+        try (InputStream in = stream) {
+            return in.readAllBytes();
+        }
+    }
+
+    private static void send(HttpExchange exchange, int status, Object payload) throws IOException {
+        StringBuilder json = new StringBuilder();
+        try (JsonOutput output = JSON.newOutput(json)) {
+            output.setPrettyPrint(false).write(payload);
+        }
+        byte[] bytes = json.toString().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", Json.JSON_UTF_8);
+        exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static class StubSession {
+        private final List<String> history = new ArrayList<>(List.of("about:blank"));
+        private volatile String url = "about:blank";
+
+        synchronized void navigate(String url) {
+            this.url = url;
+            history.add(url);
+        }
+
+        synchronized List<String> history() {
+            return new ArrayList<>(history);
+        }
+    }
+
+    private static class Response {
+        private final Endpoint endpoint;
+        private final int status;
+        private final Object value;
+
+        Response(Endpoint endpoint, Object value) {
+            this(endpoint, 200, value);
+        }
+
+        Response(Endpoint endpoint, int status, Object value) {
+            this.endpoint = endpoint;
+            this.status = status;
+            this.value = value;
+        }
+    }
+}
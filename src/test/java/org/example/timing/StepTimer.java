@@ -0,0 +1,124 @@
+package org.example.timing;
+
+import net.thucydides.core.guice.Injectors;
+import net.thucydides.core.util.EnvironmentVariables;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.support.ui.Sleeper;
+import org.slf4j.LoggerFactory;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.DoubleSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Timing primitive for steps: fixed-duration holds, and conditional waits that poll with exponential
+ * backoff and jitter instead of a fixed interval. Every wait reports how often it polled and how long it took.
+ * Intervals are configured under {@code step.timing} in {@code serenity.conf}.
+ */
+public class StepTimer {
+
+    private static final org.slf4j.Logger log = LoggerFactory.getLogger(StepTimer.class);
+
+    private final Clock clock;
+    private final Sleeper sleeper;
+    private final DoubleSupplier random;
+    private final Duration initialInterval;
+    private final Duration maxInterval;
+    private final double multiplier;
+    private final double jitter;
+
+    public StepTimer(Clock clock, Sleeper sleeper, DoubleSupplier random,
+                     Duration initialInterval, Duration maxInterval, double multiplier, double jitter) {
+        this.clock = clock;
+        this.sleeper = sleeper;
+        this.random = random;
+        this.initialInterval = initialInterval;
+        this.maxInterval = maxInterval;
+        this.multiplier = multiplier;
+        this.jitter = jitter;
+    }
+
+    public static StepTimer instance() {
+        return Holder.INSTANCE;
+    }
+
+    public Instant now() {
+        return clock.instant();
+    }
+
+    /**
+     * Blocks for the given duration without polling anything.
+     */
+    public WaitResult<Void> hold(Duration duration) {
+        return holdUntil(clock.instant().plus(duration));
+    }
+
+    public WaitResult<Void> holdUntil(Instant deadline) {
+        Instant start = clock.instant();
+        Duration remaining = Duration.between(start, deadline);
+        if (!remaining.isNegative() && !remaining.isZero()) {
+            sleep(remaining);
+        }
+        return record(new WaitResult<>(true, null, 0, Duration.between(start, clock.instant())));
+    }
+
+    /**
+     * Polls the condition until it returns a non-null value other than {@code false}, or the timeout expires.
+     * The first poll is immediate; the delay between polls starts at the initial interval and grows by the
+     * multiplier up to the maximum interval, each delay randomised by the jitter fraction.
+     */
+    public <T> WaitResult<T> until(Supplier<T> condition, Duration timeout) {
+        Instant start = clock.instant();
+        Instant deadline = start.plus(timeout);
+        long intervalMillis = initialInterval.toMillis();
+        int polls = 0;
+        while (true) {
+            polls++;
+            T value = condition.get();
+            if (value != null && !Boolean.FALSE.equals(value)) {
+                return record(new WaitResult<>(true, value, polls, Duration.between(start, clock.instant())));
+            }
+            Duration remaining = Duration.between(clock.instant(), deadline);
+            if (remaining.isNegative() || remaining.isZero()) {
+                return record(new WaitResult<>(false, null, polls, Duration.between(start, clock.instant())));
+            }
+            Duration delay = Duration.ofMillis(jittered(intervalMillis));
+            sleep(delay.compareTo(remaining) < 0 ? delay : remaining);
+            intervalMillis = Math.min(maxInterval.toMillis(), (long) (intervalMillis * multiplier));
+        }
+    }
+
+    private long jittered(long intervalMillis) {
+        double factor = 1 + jitter * (2 * random.getAsDouble() - 1);
+        return Math.max(1, Math.round(intervalMillis * factor));
+    }
+
+    private void sleep(Duration duration) {
+        try {
+            sleeper.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new WebDriverException(e);
+        }
+    }
+
+    private <T> WaitResult<T> record(WaitResult<T> result) {
+        log.debug("Step wait {}", result);
+        return result;
+    }
+
+    private static class Holder {
+        private static final StepTimer INSTANCE = fromEnvironment(Injectors.getInjector().getInstance(EnvironmentVariables.class));
+
+        private static StepTimer fromEnvironment(EnvironmentVariables environmentVariables) {
+            return new StepTimer(Clock.systemUTC(), Sleeper.SYSTEM_SLEEPER, () -> ThreadLocalRandom.current().nextDouble(),
+                    Duration.ofMillis(environmentVariables.getPropertyAsInteger("step.timing.initial.interval", 250)),
+                    Duration.ofMillis(environmentVariables.getPropertyAsInteger("step.timing.max.interval", 5000)),
+                    Double.parseDouble(environmentVariables.getProperty("step.timing.multiplier", "2.0")),
+                    Double.parseDouble(environmentVariables.getProperty("step.timing.jitter", "0.2")));
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package org.example.timing;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.DoubleSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs {@link StepTimer} on a fake clock that only moves when the timer sleeps.
+ */
+class StepTimerTest {
+
+    private static final Duration INITIAL_INTERVAL = Duration.ofMillis(250);
+    private static final Duration MAX_INTERVAL = Duration.ofMillis(5000);
+
+    private final FakeClock clock = new FakeClock();
+    private final List<Long> sleeps = new ArrayList<>();
+
+    @Test
+    void holdsForTheDurationInOneSleep() {
+        WaitResult<Void> result = timer(() -> 0.5, 0.2).hold(Duration.ofSeconds(4));
+
+        assertTrue(result.isSatisfied());
+        assertEquals(0, result.getPolls());
+        assertEquals(Duration.ofSeconds(4), result.getElapsed());
+        assertEquals(List.of(4000L), sleeps);
+    }
+
+    @Test
+    void doesNotSleepForADeadlineInThePast() {
+        StepTimer timer = timer(() -> 0.5, 0.2);
+        Instant deadline = timer.now();
+        clock.advance(1000);
+
+        WaitResult<Void> result = timer.holdUntil(deadline);
+
+        assertTrue(result.isSatisfied());
+        assertEquals(Duration.ZERO, result.getElapsed());
+        assertTrue(sleeps.isEmpty());
+    }
+
+    @Test
+    void returnsTheFirstValueWithoutSleeping() {
+        WaitResult<String> result = timer(() -> 0.5, 0.2).until(() -> "ready", Duration.ofSeconds(10));
+
+        assertTrue(result.isSatisfied());
+        assertEquals("ready", result.getValue());
+        assertEquals(1, result.getPolls());
+        assertTrue(sleeps.isEmpty());
+    }
+
+    @Test
+    void doublesTheIntervalBetweenPolls() {
+        WaitResult<Boolean> result = timer(() -> 0.5, 0.2).until(() -> clock.millis() >= 3000, Duration.ofSeconds(10));
+
+        assertTrue(result.isSatisfied());
+        assertEquals(true, result.getValue());
+        assertEquals(5, result.getPolls());
+        assertEquals(Duration.ofMillis(3750), result.getElapsed());
+        assertEquals(List.of(250L, 500L, 1000L, 2000L), sleeps);
+    }
+
+    @Test
+    void capsTheIntervalAtTheMaximum() {
+        timer(() -> 0.5, 0.2).until(() -> false, Duration.ofMinutes(1));
+
+        assertEquals(List.of(250L, 500L, 1000L, 2000L, 4000L, 5000L, 5000L), sleeps.subList(0, 7));
+        assertTrue(sleeps.stream().allMatch(sleep -> sleep <= MAX_INTERVAL.toMillis()));
+    }
+
+    @Test
+    void stopsPollingAtTheTimeout() {
+        WaitResult<Object> result = timer(() -> 0.5, 0.2).until(() -> null, Duration.ofSeconds(10));
+
+        assertFalse(result.isSatisfied());
+        assertNull(result.getValue());
+        assertEquals(7, result.getPolls());
+        assertEquals(Duration.ofSeconds(10), result.getElapsed());
+        // the last sleep is cut short to end at the deadline
+        assertEquals(List.of(250L, 500L, 1000L, 2000L, 4000L, 2250L), sleeps);
+    }
+
+    @Test
+    void keepsEveryDelayWithinTheJitterOfItsInterval() {
+        Random random = new Random(7);
+        timer(random::nextDouble, 0.2).until(() -> false, Duration.ofHours(1));
+
+        long interval = INITIAL_INTERVAL.toMillis();
+        for (long sleep : sleeps.subList(0, sleeps.size() - 1)) {
+            assertTrue(sleep >= Math.round(interval * 0.8) && sleep <= Math.round(interval * 1.2),
+                    sleep + " ms outside the jitter of " + interval + " ms");
+            interval = Math.min(MAX_INTERVAL.toMillis(), interval * 2);
+        }
+        assertTrue(sleeps.stream().distinct().count() > 10, "jitter did not vary the delays");
+    }
+
+    @Test
+    void reachesTheJitterBounds() {
+        timer(() -> 0.0, 0.2).until(() -> clock.millis() > 0, Duration.ofSeconds(10));
+        timer(() -> 1.0, 0.2).until(() -> clock.millis() > 200, Duration.ofSeconds(10));
+
+        assertEquals(List.of(200L, 300L), sleeps);
+    }
+
+    private StepTimer timer(DoubleSupplier random, double jitter) {
+        return new StepTimer(clock, duration -> {
+            sleeps.add(duration.toMillis());
+            clock.advance(duration.toMillis());
+        }, random, INITIAL_INTERVAL, MAX_INTERVAL, 2.0, jitter);
+    }
+
+    private static class FakeClock extends Clock {
+
+        private long millis;
+
+        void advance(long millis) {
+            this.millis += millis;
+        }
+
+        @Override
+        public long millis() {
+            return millis;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
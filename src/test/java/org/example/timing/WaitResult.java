@@ -0,0 +1,45 @@
+package org.example.timing;
+
+import java.time.Duration;
+
+/**
+ * Outcome of a {@link StepTimer} wait.
+ */
+public class WaitResult<T> {
+
+    private final boolean satisfied;
+    private final T value;
+    private final int polls;
+    private final Duration elapsed;
+
+    WaitResult(boolean satisfied, T value, int polls, Duration elapsed) {
+        this.satisfied = satisfied;
+        this.value = value;
+        this.polls = polls;
+        this.elapsed = elapsed;
+    }
+
+    /**
+     * @return {@code false} if the wait timed out before its condition was met
+     */
+    public boolean isSatisfied() {
+        return satisfied;
+    }
+
+    public T getValue() {
+        return value;
+    }
+
+    public int getPolls() {
+        return polls;
+    }
+
+    public Duration getElapsed() {
+        return elapsed;
+    }
+
+    @Override
+    public String toString() {
+        return (satisfied ? "satisfied" : "timed out") + " after " + polls + " polls in " + elapsed.toMillis() + " ms";
+    }
+}
@@ -0,0 +1,59 @@
+package org.example.tracing;
+
+/**
+ * Round trips of one WebDriver command, as recorded by {@link CommandTracer}.
+ */
+public class CommandStats {
+
+    private final String command;
+    private final String alias;
+    private long count;
+    private long failures;
+    private long totalNanos;
+    private long maxNanos;
+    private long requestBytes;
+    private long responseBytes;
+
+    CommandStats(String command, String alias) {
+        this.command = command;
+        this.alias = alias;
+    }
+
+    synchronized void add(long nanos, long requestBytes, long responseBytes, boolean failed) {
+        count++;
+        if (failed) {
+            failures++;
+        }
+        totalNanos += nanos;
+        maxNanos = Math.max(maxNanos, nanos);
+        this.requestBytes += requestBytes;
+        this.responseBytes += responseBytes;
+    }
+
+    public String getCommand() {
+        return command;
+    }
+
+    /**
+     * @return the command this one was sent as, e.g. {@code executeScript} for {@code getLocalStorageItem}
+     */
+    public String getAlias() {
+        return alias;
+    }
+
+    public synchronized long getCount() {
+        return count;
+    }
+
+    public synchronized long getTotalNanos() {
+        return totalNanos;
+    }
+
+    @Override
+    public synchronized String toString() {
+        String name = command.equals(alias) ? command : command + " (as " + alias + ")";
+        return String.format("%-50s %6d %10.1f %8.1f %8.1f %10d %10d%s", name, count, totalNanos / 1e6,
+                totalNanos / 1e6 / count, maxNanos / 1e6, requestBytes, responseBytes,
+                failures > 0 ? "  " + failures + " failed" : "");
+    }
+}
@@ -0,0 +1,65 @@
+package org.example.tracing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks the totals {@link CommandStats} keeps and the summary line it prints.
+ */
+class CommandStatsTest {
+
+    @Test
+    void summarisesTheRoundTripsOfACommand() {
+        CommandStats stats = new CommandStats("findElement", "findElement");
+        stats.add(2_000_000, 100, 300, false);
+        stats.add(6_000_000, 120, 0, true);
+        stats.add(1_000_000, 80, 200, false);
+
+        assertEquals(3, stats.getCount());
+        assertEquals(9_000_000, stats.getTotalNanos());
+        assertEquals(String.format("%-50s %6d %10.1f %8.1f %8.1f %10d %10d  1 failed", "findElement", 3, 9.0, 3.0, 6.0, 300, 500),
+                stats.toString());
+    }
+
+    @Test
+    void namesTheCommandItWasSentAs() {
+        CommandStats stats = new CommandStats("getLocalStorageItem", "executeScript");
+        stats.add(1_500_000, 64, 32, false);
+
+        assertEquals("getLocalStorageItem", stats.getCommand());
+        assertEquals("executeScript", stats.getAlias());
+        assertEquals(String.format("%-50s %6d %10.1f %8.1f %8.1f %10d %10d", "getLocalStorageItem (as executeScript)", 1, 1.5, 1.5, 1.5, 64, 32),
+                stats.toString());
+    }
+
+    @Test
+    void countsRoundTripsRecordedConcurrently() throws Exception {
+        CommandStats stats = new CommandStats("clickElement", "clickElement");
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> recorders = new ArrayList<>();
+            for (int thread = 0; thread < 4; thread++) {
+                recorders.add(executor.submit(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        stats.add(10, 1, 1, false);
+                    }
+                }));
+            }
+            for (Future<?> recorder : recorders) {
+                recorder.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(40_000, stats.getCount());
+        assertEquals(400_000, stats.getTotalNanos());
+    }
+}
@@ -0,0 +1,94 @@
+package org.example.tracing;
+
+import org.openqa.selenium.remote.codec.w3c.CommandTracing;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Aggregates the WebDriver round trips timed by {@link TracingHttpClientFactory}, per scenario and per browser
+ * session. A scenario's commands are those sent from its thread between {@link #startScenario()} and
+ * {@link #finishScenario()}. Does nothing unless tracing is enabled with {@code -Dwebdriver.http.factory=traced}.
+ */
+public class CommandTracer {
+
+    private static final org.slf4j.Logger log = LoggerFactory.getLogger(CommandTracer.class);
+
+    private static final CommandTracer INSTANCE = new CommandTracer(CommandTracing.ENABLED);
+    private static final String HEADER = String.format("%-50s %6s %10s %8s %8s %10s %10s",
+            "Command", "Count", "Total ms", "Mean ms", "Max ms", "Sent B", "Received B");
+
+    private final boolean enabled;
+    private final ThreadLocal<Map<String, CommandStats>> scenario = new ThreadLocal<>();
+    private final ConcurrentMap<String, ConcurrentMap<String, CommandStats>> sessions = new ConcurrentHashMap<>();
+
+    CommandTracer(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public static CommandTracer instance() {
+        return INSTANCE;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void startScenario() {
+        if (isEnabled()) {
+            scenario.set(new HashMap<>());
+        }
+    }
+
+    /**
+     * @return the commands sent by the current scenario, slowest in total first, or {@code null} if tracing
+     * is disabled or none were sent
+     */
+    public String finishScenario() {
+        Map<String, CommandStats> commands = scenario.get();
+        scenario.remove();
+        return commands == null || commands.isEmpty() ? null : format(commands.values());
+    }
+
+    void record(String sessionId, String command, String alias, long nanos, long requestBytes, long responseBytes, boolean failed) {
+        String key = command + '\u0000' + alias;
+        Map<String, CommandStats> commands = scenario.get();
+        if (commands != null) {
+            commands.computeIfAbsent(key, k -> new CommandStats(command, alias)).add(nanos, requestBytes, responseBytes, failed);
+        }
+        if (sessionId != null) {
+            sessions.computeIfAbsent(sessionId, id -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(key, k -> new CommandStats(command, alias))
+                    .add(nanos, requestBytes, responseBytes, failed);
+        }
+    }
+
+    public void logSessionSummary() {
+        sessions.forEach((sessionId, commands) -> log.info("WebDriver commands of session {}:\n{}", sessionId, sessionSummary(sessionId)));
+    }
+
+    /**
+     * @return the commands sent in the given browser session, slowest in total first, or {@code null} if none were
+     */
+    String sessionSummary(String sessionId) {
+        Map<String, CommandStats> commands = sessions.get(sessionId);
+        return commands == null ? null : format(commands.values());
+    }
+
+    private static String format(Iterable<CommandStats> commands) {
+        List<CommandStats> slowestFirst = new ArrayList<>();
+        commands.forEach(slowestFirst::add);
+        slowestFirst.sort(Comparator.comparingLong(CommandStats::getTotalNanos).reversed());
+        StringBuilder summary = new StringBuilder(HEADER);
+        for (CommandStats stats : slowestFirst) {
+            summary.append('\n').append(stats);
+        }
+        return summary.toString();
+    }
+}
@@ -0,0 +1,90 @@
+package org.example.tracing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks how {@link CommandTracer} splits the recorded round trips between scenarios and browser sessions.
+ */
+class CommandTracerTest {
+
+    private final CommandTracer tracer = new CommandTracer(true);
+
+    @Test
+    void listsTheCommandsOfAScenarioSlowestFirst() {
+        tracer.startScenario();
+        tracer.record("s1", "findElement", "findElement", 1_000_000, 50, 100, false);
+        tracer.record("s1", "getLocalStorageItem", "executeScript", 5_000_000, 60, 20, false);
+        tracer.record("s1", "findElement", "findElement", 2_000_000, 50, 100, true);
+
+        String[] lines = tracer.finishScenario().split("\n");
+
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].startsWith("Command"), lines[0]);
+        assertEquals(line("getLocalStorageItem", "executeScript", 1, 5_000_000, 60, 20), lines[1]);
+        CommandStats findElement = new CommandStats("findElement", "findElement");
+        findElement.add(1_000_000, 50, 100, false);
+        findElement.add(2_000_000, 50, 100, true);
+        assertEquals(findElement.toString(), lines[2]);
+        // the scenario is over
+        assertNull(tracer.finishScenario());
+    }
+
+    @Test
+    void keepsTheCommandsOfOtherThreadsOutOfTheScenario() throws Exception {
+        tracer.startScenario();
+        tracer.record("s1", "clickElement", "clickElement", 1_000_000, 10, 10, false);
+        CompletableFuture.runAsync(() -> {
+            tracer.startScenario();
+            tracer.record("s2", "getPageSource", "executeScript", 1_000_000, 10, 10, false);
+        }).get();
+
+        String summary = tracer.finishScenario();
+
+        assertTrue(summary.contains("clickElement"), summary);
+        assertFalse(summary.contains("getPageSource"), summary);
+    }
+
+    @Test
+    void addsUpEverySessionAcrossScenarios() {
+        for (int scenario = 0; scenario < 2; scenario++) {
+            tracer.startScenario();
+            tracer.record("s1", "clickElement", "clickElement", 1_000_000, 10, 10, false);
+            tracer.finishScenario();
+        }
+        // outside a scenario, e.g. while the browser is set up
+        tracer.record("s1", "clickElement", "clickElement", 1_000_000, 10, 10, false);
+        tracer.record(null, "newSession", "newSession", 1_000_000, 10, 10, false);
+
+        assertTrue(tracer.sessionSummary("s1").endsWith("\n" + line("clickElement", "clickElement", 3, 3_000_000, 30, 30)),
+                tracer.sessionSummary("s1"));
+        assertNull(tracer.sessionSummary("s2"));
+    }
+
+    @Test
+    void recordsNoScenarioWhenDisabled() {
+        CommandTracer disabled = new CommandTracer(false);
+
+        disabled.startScenario();
+        disabled.record("s1", "clickElement", "clickElement", 1_000_000, 10, 10, false);
+
+        assertNull(disabled.finishScenario());
+    }
+
+    /**
+     * @return the summary line of a command sent {@code count} times, each taking an equal share of the totals
+     */
+    private static String line(String command, String alias, int count, long totalNanos, long requestBytes, long responseBytes) {
+        CommandStats stats = new CommandStats(command, alias);
+        for (int i = 0; i < count; i++) {
+            stats.add(totalNanos / count, requestBytes / count, responseBytes / count, false);
+        }
+        return stats.toString();
+    }
+}
@@ -0,0 +1,98 @@
+package org.example.tracing;
+
+import org.openqa.selenium.remote.codec.w3c.CommandTracing;
+import org.openqa.selenium.remote.http.ClientConfig;
+import org.openqa.selenium.remote.http.Contents;
+import org.openqa.selenium.remote.http.Filter;
+import org.openqa.selenium.remote.http.HttpClient;
+import org.openqa.selenium.remote.http.HttpClientName;
+import org.openqa.selenium.remote.http.HttpHandler;
+import org.openqa.selenium.remote.http.HttpRequest;
+import org.openqa.selenium.remote.http.HttpResponse;
+
+/**
+ * Selenium's default Netty HTTP client with a filter that times every WebDriver round trip and measures its
+ * payloads, reporting them to {@link CommandTracer} under the command names {@code W3CHttpCommandCodec} tagged
+ * the request with. Selected with {@code -Dwebdriver.http.factory=traced}, which also turns on the tagging.
+ */
+@HttpClientName(CommandTracing.FACTORY_NAME)
+public class TracingHttpClientFactory implements HttpClient.Factory {
+
+    private static final String SESSION_PREFIX = "/session/";
+
+    private final HttpClient.Factory delegate = HttpClient.Factory.create("netty");
+
+    @Override
+    public HttpClient createClient(ClientConfig config) {
+        return delegate.createClient(config.withFilter(new TracingFilter(CommandTracer.instance())));
+    }
+
+    @Override
+    public void cleanupIdleClients() {
+        delegate.cleanupIdleClients();
+    }
+
+    static class TracingFilter implements Filter {
+
+        private final CommandTracer tracer;
+
+        TracingFilter(CommandTracer tracer) {
+            this.tracer = tracer;
+        }
+
+        @Override
+        public HttpHandler apply(HttpHandler next) {
+            return request -> {
+                Object command = request.getAttribute(CommandTracing.COMMAND_ATTRIBUTE);
+                if (command == null) {
+                    return next.execute(request);
+                }
+                long started = System.nanoTime();
+                HttpResponse response = null;
+                try {
+                    response = next.execute(request);
+                    return response;
+                } finally {
+                    long nanos = System.nanoTime() - started;
+                    tracer.record(sessionId(request), (String) command,
+                            (String) request.getAttribute(CommandTracing.ALIAS_ATTRIBUTE), nanos,
+                            contentLength(request.getHeader("Content-Length")), responseBytes(response),
+                            response == null || !response.isSuccessful());
+                }
+            };
+        }
+
+        private static long responseBytes(HttpResponse response) {
+            if (response == null) {
+                return 0;
+            }
+            long length = contentLength(response.getHeader("Content-Length"));
+            if (length > 0) {
+                return length;
+            }
+            // the content is read again when the response is decoded, so keep a copy
+            byte[] body = Contents.bytes(response.getContent());
+            response.setContent(Contents.bytes(body));
+            return body.length;
+        }
+
+        private static long contentLength(String header) {
+            try {
+                return header == null ? 0 : Long.parseLong(header);
+            } catch (NumberFormatException e) {
+                return 0;
+            }
+        }
+
+        private static String sessionId(HttpRequest request) {
+            String uri = request.getUri();
+            int start = uri.indexOf(SESSION_PREFIX);
+            if (start < 0) {
+                return null;
+            }
+            start += SESSION_PREFIX.length();
+            int end = uri.indexOf('/', start);
+            return end < 0 ? uri.substring(start) : uri.substring(start, end);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package org.example.tracing;
+
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.remote.codec.w3c.CommandTracing;
+import org.openqa.selenium.remote.http.Contents;
+import org.openqa.selenium.remote.http.HttpHandler;
+import org.openqa.selenium.remote.http.HttpMethod;
+import org.openqa.selenium.remote.http.HttpRequest;
+import org.openqa.selenium.remote.http.HttpResponse;
+
+import java.io.UncheckedIOException;
+import java.net.ConnectException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Sends requests through the filter of {@link TracingHttpClientFactory} to a handler answering in place of the
+ * driver, and checks what it reports to the {@link CommandTracer}.
+ */
+class TracingHttpClientFactoryTest {
+
+    private static final String SESSION = "0f3c2b1a9e8d7c6b5a4f3e2d1c0b9a87";
+
+    private final CommandTracer tracer = new CommandTracer(true);
+
+    @Test
+    void reportsEachTaggedRoundTripUnderItsSession() {
+        HttpHandler driver = filtered(request -> new HttpResponse().setHeader("Content-Length", "16")
+                .setContent(Contents.utf8String("{\"value\":\"text\"}")));
+
+        driver.execute(tagged(new HttpRequest(HttpMethod.POST, "/session/" + SESSION + "/execute/sync")
+                .setHeader("Content-Length", "42"), "getLocalStorageItem", "executeScript"));
+
+        assertTrue(tracer.sessionSummary(SESSION).contains("getLocalStorageItem (as executeScript)"), tracer.sessionSummary(SESSION));
+        assertTrue(tracer.sessionSummary(SESSION).matches("(?s).*\\s42\\s+16$"), tracer.sessionSummary(SESSION));
+    }
+
+    @Test
+    void measuresAResponseWithoutContentLengthAndKeepsItsBody() {
+        String body = "{\"value\":\"élément\"}";
+        HttpHandler driver = filtered(request -> new HttpResponse().setContent(Contents.utf8String(body)));
+
+        HttpResponse response = driver.execute(tagged(new HttpRequest(HttpMethod.GET, "/session/" + SESSION + "/title"),
+                "getTitle", "getTitle"));
+
+        assertEquals(body, Contents.string(response));
+        assertTrue(tracer.sessionSummary(SESSION).endsWith(" " + body.getBytes(StandardCharsets.UTF_8).length),
+                tracer.sessionSummary(SESSION));
+    }
+
+    @Test
+    void countsErrorResponsesAndExceptionsAsFailures() {
+        HttpHandler notFound = filtered(request -> new HttpResponse().setStatus(404).setHeader("Content-Length", "2"));
+        HttpHandler unreachable = filtered(request -> {
+            throw new UncheckedIOException(new ConnectException("Connection refused"));
+        });
+
+        notFound.execute(tagged(new HttpRequest(HttpMethod.POST, "/session/" + SESSION + "/element"), "findElement", "findElement"));
+        assertThrows(UncheckedIOException.class, () -> unreachable.execute(
+                tagged(new HttpRequest(HttpMethod.POST, "/session/" + SESSION + "/element"), "findElement", "findElement")));
+
+        assertTrue(tracer.sessionSummary(SESSION).endsWith("  2 failed"), tracer.sessionSummary(SESSION));
+    }
+
+    @Test
+    void passesUntaggedRequestsThroughUntimed() {
+        HttpResponse answer = new HttpResponse();
+        HttpHandler driver = filtered(request -> answer);
+
+        assertSame(answer, driver.execute(new HttpRequest(HttpMethod.GET, "/session/" + SESSION + "/url")));
+        assertNull(tracer.sessionSummary(SESSION));
+    }
+
+    @Test
+    void reportsCommandsWithoutASessionOnlyToTheScenario() {
+        HttpHandler driver = filtered(request -> new HttpResponse());
+        tracer.startScenario();
+
+        driver.execute(tagged(new HttpRequest(HttpMethod.GET, "/status"), "status", "status"));
+
+        assertTrue(tracer.finishScenario().contains("status"));
+    }
+
+    private HttpHandler filtered(HttpHandler driver) {
+        return new TracingHttpClientFactory.TracingFilter(tracer).apply(driver);
+    }
+
+    private static HttpRequest tagged(HttpRequest request, String command, String alias) {
+        request.setAttribute(CommandTracing.COMMAND_ATTRIBUTE, command);
+        request.setAttribute(CommandTracing.ALIAS_ATTRIBUTE, alias);
+        return request;
+    }
+}
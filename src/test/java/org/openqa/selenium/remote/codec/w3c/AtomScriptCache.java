@@ -0,0 +1,119 @@
+package org.openqa.selenium.remote.codec.w3c;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.io.Resources;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import org.openqa.selenium.WebDriverException;
+
+/**
+ * Holds the wrapped atom scripts used by {@link W3CHttpCommandCodec}, read from the classpath once per JVM, and the
+ * ready-to-send executeScript payloads built from them. Payloads are kept per atom and argument list in a bounded
+ * cache of {@code -Dwebdriver.codec.atoms.cache-size} entries (1024 by default, 0 disables it), so repeated reads of
+ * the same element, such as a wait polling {@code isDisplayed}, cost one lookup.
+ * Set {@code -Dwebdriver.codec.atoms.preload=true} to load all known atoms when the class is initialised.
+ */
+public final class AtomScriptCache {
+
+    public static final String PRELOAD_PROPERTY = "webdriver.codec.atoms.preload";
+    public static final String CACHE_SIZE_PROPERTY = "webdriver.codec.atoms.cache-size";
+
+    public static final String GET_ATTRIBUTE = "getAttribute.js";
+    public static final String IS_DISPLAYED = "isDisplayed.js";
+
+    private static final String ATOMS_PATH = "/org/openqa/selenium/remote/";
+    private static final int MAX_PAYLOADS = Integer.getInteger(CACHE_SIZE_PROPERTY, 1024);
+    private static final ConcurrentMap<String, String> SCRIPTS = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<PayloadKey, Map<String, ?>> PAYLOADS = CacheBuilder.newBuilder()
+            .maximumSize(Math.max(MAX_PAYLOADS, 0))
+            .<PayloadKey, Map<String, ?>>build()
+            .asMap();
+    private static final LongAdder LOOKUPS = new LongAdder();
+    private static final LongAdder MISSES = new LongAdder();
+
+    static {
+        if (Boolean.getBoolean(PRELOAD_PROPERTY)) {
+            preload();
+        }
+    }
+
+    private AtomScriptCache() {
+    }
+
+    public static void preload() {
+        script(GET_ATTRIBUTE);
+        script(IS_DISPLAYED);
+    }
+
+    /**
+     * @return payload lookups answered from the cache
+     */
+    public static long hits() {
+        return LOOKUPS.sum() - MISSES.sum();
+    }
+
+    /**
+     * @return payload lookups that had to build the payload
+     */
+    public static long misses() {
+        return MISSES.sum();
+    }
+
+    /**
+     * @return the atom wrapped as an executeScript body, {@code return (atom).apply(null, arguments);}
+     */
+    public static String script(String atomFileName) {
+        try {
+            return SCRIPTS.computeIfAbsent(atomFileName, AtomScriptCache::load);
+        } catch (UncheckedIOException e) {
+            throw new WebDriverException(e.getCause());
+        }
+    }
+
+    /**
+     * @param args JSON-ready arguments of the atom, i.e. element references rather than {@code WebElement}s
+     * @return the executeScript parameters calling the atom with {@code args}
+     */
+    static Map<String, ?> payload(String atomFileName, Object... args) {
+        List<Object> arguments = Collections.unmodifiableList(Arrays.asList(args));
+        LOOKUPS.increment();
+        if (MAX_PAYLOADS <= 0) {
+            MISSES.increment();
+            return toPayload(atomFileName, arguments);
+        }
+        return PAYLOADS.computeIfAbsent(new PayloadKey(atomFileName, arguments), key -> {
+            MISSES.increment();
+            return toPayload(key.atomFileName(), key.arguments());
+        });
+    }
+
+    private static Map<String, ?> toPayload(String atomFileName, List<Object> arguments) {
+        return ImmutableMap.of("script", script(atomFileName), "args", arguments);
+    }
+
+    private static String load(String atomFileName) {
+        URL url = AtomScriptCache.class.getResource(ATOMS_PATH + atomFileName);
+        if (url == null) {
+            throw new WebDriverException("Unable to locate atom " + atomFileName);
+        }
+        try {
+            String rawFunction = Resources.toString(url, StandardCharsets.UTF_8);
+            return String.format("return (%s).apply(null, arguments);", rawFunction);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private record PayloadKey(String atomFileName, List<Object> arguments) {
+    }
+}
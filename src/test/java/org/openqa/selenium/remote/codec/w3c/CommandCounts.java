@@ -0,0 +1,41 @@
+package org.openqa.selenium.remote.codec.w3c;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Number of commands encoded by {@link W3CHttpCommandCodec} in this JVM, by the command name the driver used
+ * (e.g. {@code getLocalStorageItem}, not the {@code executeScript} it is sent as).
+ */
+public final class CommandCounts {
+
+    private static final ConcurrentMap<String, LongAdder> COUNTS = new ConcurrentHashMap<>();
+
+    private CommandCounts() {
+    }
+
+    static void increment(String commandName) {
+        LongAdder count = COUNTS.get(commandName);
+        if (count == null) {
+            count = COUNTS.computeIfAbsent(commandName, name -> new LongAdder());
+        }
+        count.increment();
+    }
+
+    public static Map<String, Long> snapshot() {
+        Map<String, Long> snapshot = new TreeMap<>();
+        COUNTS.forEach((name, count) -> snapshot.put(name, count.sum()));
+        return snapshot;
+    }
+
+    public static long total() {
+        long total = 0;
+        for (LongAdder count : COUNTS.values()) {
+            total += count.sum();
+        }
+        return total;
+    }
+}
@@ -0,0 +1,18 @@
+package org.openqa.selenium.remote.codec.w3c;
+
+/**
+ * Switch and request attribute names for per-command tracing. Tracing is on when the traced HTTP client is
+ * selected with {@code -Dwebdriver.http.factory=traced}; {@link W3CHttpCommandCodec} then tags every request it
+ * encodes with the command name the driver used and the command it was sent as, for the client to time.
+ */
+public final class CommandTracing {
+
+    public static final String FACTORY_NAME = "traced";
+    public static final boolean ENABLED = FACTORY_NAME.equals(System.getProperty("webdriver.http.factory"));
+
+    public static final String COMMAND_ATTRIBUTE = "webdriver.command";
+    public static final String ALIAS_ATTRIBUTE = "webdriver.command.alias";
+
+    private CommandTracing() {
+    }
+}
@@ -0,0 +1,116 @@
+package org.openqa.selenium.remote.codec.w3c;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+import org.openqa.selenium.InvalidSelectorException;
+
+/**
+ * Rewrites {@code id}, {@code name} and {@code class name} locators to the CSS selectors sent by
+ * {@link W3CHttpCommandCodec}. Rewritten selectors are kept in a JVM-wide, segmented LRU cache bounded by
+ * {@code -Dwebdriver.codec.locators.cache-size} (1024 entries by default, 0 disables caching), so that worker
+ * threads looking up different locators do not wait on each other.
+ */
+public final class LocatorRewriter {
+
+    public static final String CACHE_SIZE_PROPERTY = "webdriver.codec.locators.cache-size";
+
+    private static final Pattern COMPOUND_CLASS_NAME = Pattern.compile(".*\\s.*");
+    private static final boolean[] ESCAPED = new boolean[128];
+    private static final int MAX_SIZE = Integer.getInteger(CACHE_SIZE_PROPERTY, 1024);
+
+    private static final LongAdder LOOKUPS = new LongAdder();
+    private static final LongAdder MISSES = new LongAdder();
+    private static final LongAdder EVICTIONS = new LongAdder();
+    private static final Cache<Key, String> CACHE = CacheBuilder.newBuilder()
+            .maximumSize(Math.max(MAX_SIZE, 0))
+            .concurrencyLevel(Runtime.getRuntime().availableProcessors())
+            .<Key, String>removalListener(removal -> {
+                if (removal.wasEvicted()) {
+                    EVICTIONS.increment();
+                }
+            })
+            .build();
+
+    static {
+        for (char c : " \t\n\u000B\f\r'\"\\#.:;,!?+<>=~*^$|%&@`{}-/[]()".toCharArray()) {
+            ESCAPED[c] = true;
+        }
+    }
+
+    private LocatorRewriter() {
+    }
+
+    /**
+     * @return the CSS selector for the locator, or {@code null} if the strategy is not rewritten
+     */
+    static String toCssSelector(String using, String value) {
+        if (!isRewritten(using)) {
+            return null;
+        }
+        if ("class name".equals(using) && COMPOUND_CLASS_NAME.matcher(value).matches()) {
+            throw new InvalidSelectorException("Compound class names not permitted");
+        }
+        if (MAX_SIZE <= 0) {
+            return rewrite(using, value);
+        }
+
+        LOOKUPS.increment();
+        return CACHE.asMap().computeIfAbsent(new Key(using, value), key -> {
+            MISSES.increment();
+            return rewrite(key.using(), key.value());
+        });
+    }
+
+    public static long hits() {
+        return LOOKUPS.sum() - MISSES.sum();
+    }
+
+    public static long misses() {
+        return MISSES.sum();
+    }
+
+    public static long evictions() {
+        return EVICTIONS.sum();
+    }
+
+    public static long size() {
+        return CACHE.size();
+    }
+
+    private static boolean isRewritten(String using) {
+        return "class name".equals(using) || "id".equals(using) || "name".equals(using);
+    }
+
+    private static String rewrite(String using, String value) {
+        switch (using) {
+            case "class name":
+                return cssEscape(new StringBuilder(value.length() + 8).append('.'), value);
+            case "id":
+                return cssEscape(new StringBuilder(value.length() + 8).append('#'), value);
+            default:
+                return "*[name='" + value + "']";
+        }
+    }
+
+    private static String cssEscape(StringBuilder selector, String value) {
+        int start = 0;
+        if (value.length() > 0 && Character.isDigit(value.charAt(0))) {
+            // A leading digit is written as a CSS hex escape, e.g. "1abc" -> "\31 abc"
+            selector.append('\\').append(30 + Character.digit(value.charAt(0), 10)).append(' ');
+            start = 1;
+        }
+        for (int i = start; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < ESCAPED.length && ESCAPED[c]) {
+                selector.append('\\');
+            }
+            selector.append(c);
+        }
+        return selector.toString();
+    }
+
+    private record Key(String using, String value) {
+    }
+}
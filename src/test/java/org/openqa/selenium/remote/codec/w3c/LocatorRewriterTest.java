@@ -0,0 +1,112 @@
+package org.openqa.selenium.remote.codec.w3c;
+
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.InvalidSelectorException;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Differential test of {@link LocatorRewriter} against the regex-based rewrite it replaced.
+ */
+class LocatorRewriterTest {
+
+    private static final List<String> STRATEGIES = List.of("id", "name", "class name");
+    // every character the old regex escaped, its neighbours, Unicode whitespace and digits, and a surrogate pair
+    private static final String ALPHABET = " \t\n\r\u000B\f\u0085\u00a0\u2028'\"\\#.:;,!?+<>=~*^$|%&@`{}-/[]()_aZ09\u0663\u00e9\ud83d\ude00";
+
+    @Test
+    void rewritesEverySingleCharacterAsBefore() {
+        for (char c = 0; c < 0x3000; c++) {
+            assertRewrittenAsBefore(String.valueOf(c));
+            assertRewrittenAsBefore(c + "x");
+            assertRewrittenAsBefore("x" + c);
+        }
+    }
+
+    @Test
+    void rewritesRandomLocatorsAsBefore() {
+        Random random = new Random(20230517L);
+        for (int i = 0; i < 50_000; i++) {
+            StringBuilder value = new StringBuilder();
+            int length = random.nextInt(8);
+            for (int j = 0; j < length; j++) {
+                value.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+            }
+            assertRewrittenAsBefore(value.toString());
+        }
+    }
+
+    @Test
+    void rewritesTypicalLocatorsAsBefore() {
+        for (String value : List.of("", "login", "login-form:submit", "1abc", "9", "a.b#c", "it's", "[data]", "ünï",
+                "a b", "a\nb", "\n\n", " ", "x\t", "user_name", "3d-view")) {
+            assertRewrittenAsBefore(value);
+        }
+    }
+
+    @Test
+    void leavesOtherStrategiesAlone() {
+        assertNull(LocatorRewriter.toCssSelector("css selector", "#login"));
+        assertNull(LocatorRewriter.toCssSelector("xpath", "//a"));
+        assertNull(LocatorRewriter.toCssSelector("link text", "Sign in"));
+    }
+
+    @Test
+    void countsHitsAndMisses() {
+        String value = "counted-" + System.nanoTime();
+        long hits = LocatorRewriter.hits();
+        long misses = LocatorRewriter.misses();
+
+        LocatorRewriter.toCssSelector("id", value);
+        LocatorRewriter.toCssSelector("id", value);
+        LocatorRewriter.toCssSelector("name", value);
+
+        assertEquals(misses + 2, LocatorRewriter.misses());
+        assertEquals(hits + 1, LocatorRewriter.hits());
+    }
+
+    private static void assertRewrittenAsBefore(String value) {
+        for (String using : STRATEGIES) {
+            assertEquals(previous(using, value), rewritten(using, value), () -> using + " of " + value.chars()
+                    .mapToObj(Integer::toHexString).toList());
+        }
+    }
+
+    private static String rewritten(String using, String value) {
+        try {
+            return LocatorRewriter.toCssSelector(using, value);
+        } catch (InvalidSelectorException e) {
+            return "invalid";
+        }
+    }
+
+    /**
+     * The rewrite as {@code W3CHttpCommandCodec.amendParameters} did it before {@link LocatorRewriter}.
+     */
+    private static String previous(String using, String value) {
+        switch (using) {
+            case "class name":
+                if (value.matches(".*\\s.*")) {
+                    return "invalid";
+                }
+                return "." + cssEscape(value);
+            case "id":
+                return "#" + cssEscape(value);
+            default:
+                return "*[name='" + value + "']";
+        }
+    }
+
+    private static String cssEscape(String using) {
+        using = using.replaceAll("([\\s'\"\\\\#.:;,!?+<>=~*^$|%&@`{}\\-\\/\\[\\]\\(\\)])", "\\\\$1");
+        if (using.length() > 0 && Character.isDigit(using.charAt(0))) {
+            using = "\\" + (30 + Integer.parseInt(using.substring(0, 1))) + " " + using.substring(1);
+        }
+        return using;
+    }
+}
@@ -0,0 +1,132 @@
+package org.openqa.selenium.remote.codec.w3c;
+
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.remote.Command;
+import org.openqa.selenium.remote.SessionId;
+import org.openqa.selenium.remote.http.HttpRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Checks the sendKeys encoding against the code-point implementation it replaced, and the command names requests
+ * are tagged with for tracing.
+ */
+class W3CHttpCommandCodecTest {
+
+    private static final String ELEMENT = "7a1e5c2d-3b4f-4e6a-9c8d-0f1e2d3c4b5a";
+
+    private final W3CHttpCommandCodec codec = new W3CHttpCommandCodec();
+
+    @Test
+    void encodesAsciiAndLatin1LikeTheCodePointImplementation() {
+        assertEncodedAsBefore("user@example.org");
+        assertEncodedAsBefore("Zoë Ñandú ß ÿ ¡¿  ÿ\u0000\t\n");
+    }
+
+    @Test
+    void encodesBmpTextLikeTheCodePointImplementation() {
+        assertEncodedAsBefore("Łukasz Ωμέγα 中文 ✓ € � ￿");
+    }
+
+    @Test
+    void keepsValidSurrogatePairsTogether() {
+        String text = "a😀b𝄞𠜎";
+        List<String> value = sendKeys(text);
+
+        assertEquals(List.of("a", "😀", "b", "𝄞", "𠜎"), value);
+        assertEquals(codePoints(text), value);
+    }
+
+    @Test
+    void encodesLoneSurrogatesOnTheirOwn() {
+        assertEncodedAsBefore("\ud83d");
+        assertEncodedAsBefore("\ude00");
+        assertEncodedAsBefore("a\ud83db");
+        assertEncodedAsBefore("a\ude00\ud83d");
+        assertEncodedAsBefore("\ude00😀\ud83d");
+        assertEncodedAsBefore("end\ud83d");
+    }
+
+    @Test
+    void joinsEveryChunkOfTheValue() {
+        Map<String, ?> amended = codec.amendParameters("sendKeysToElement",
+                Map.of("id", ELEMENT, "value", new CharSequence[]{"ab", new StringBuilder("😀"), "c"}));
+
+        assertEquals(Map.of("id", ELEMENT, "text", "ab😀c", "value", List.of("a", "b", "😀", "c")), amended);
+        assertEquals(amended, codec.amendParameters("sendKeysToElement",
+                Map.of("id", ELEMENT, "value", List.of("ab", "😀", "c"))));
+    }
+
+    @Test
+    void encodesAlertTextLikeSendKeys() {
+        String text = "Zoë 😀 \ud83d";
+
+        assertEquals(Map.of("text", text, "value", codePoints(text)),
+                codec.amendParameters("setAlertValue", Map.of("text", text)));
+    }
+
+    @Test
+    void reusesLatin1Strings() {
+        List<String> first = sendKeys("aé");
+        List<String> second = sendKeys("éa");
+
+        assertSame(first.get(0), second.get(1));
+        assertSame(first.get(1), second.get(0));
+    }
+
+    @Test
+    void tagsRequestsWithTheCommandAndWhatItWasSentAs() {
+        W3CHttpCommandCodec tracing = new W3CHttpCommandCodec(true);
+        SessionId session = new SessionId("0f3c2b1a9e8d7c6b5a4f3e2d1c0b9a87");
+
+        HttpRequest storage = tracing.encode(new Command(session, "getLocalStorageItem", Map.of("key", "token")));
+        HttpRequest click = tracing.encode(new Command(session, "clickElement", Map.of("id", ELEMENT)));
+
+        assertEquals("getLocalStorageItem", storage.getAttribute(CommandTracing.COMMAND_ATTRIBUTE));
+        assertEquals("executeScript", storage.getAttribute(CommandTracing.ALIAS_ATTRIBUTE));
+        assertEquals("clickElement", click.getAttribute(CommandTracing.COMMAND_ATTRIBUTE));
+        assertEquals("clickElement", click.getAttribute(CommandTracing.ALIAS_ATTRIBUTE));
+    }
+
+    @Test
+    void leavesRequestsUntaggedWithoutTracing() {
+        HttpRequest request = new W3CHttpCommandCodec(false).encode(
+                new Command(new SessionId("0f3c2b1a9e8d7c6b5a4f3e2d1c0b9a87"), "clickElement", Map.of("id", ELEMENT)));
+
+        assertNull(request.getAttribute(CommandTracing.COMMAND_ATTRIBUTE));
+        assertNull(request.getAttribute(CommandTracing.ALIAS_ATTRIBUTE));
+    }
+
+    private void assertEncodedAsBefore(String text) {
+        assertEquals(codePoints(text), sendKeys(text), () -> "Encoding of " + text.codePoints()
+                .mapToObj(Integer::toHexString).toList());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<String> sendKeys(String text) {
+        Map<String, ?> amended = codec.amendParameters("sendKeysToElement",
+                Map.of("id", ELEMENT, "value", new CharSequence[]{text}));
+        assertEquals(text, amended.get("text"));
+        return (List<String>) amended.get("value");
+    }
+
+    /**
+     * The encoding before the single-character cache: one new string per code point, where a lone surrogate is
+     * a code point of its own.
+     */
+    private static List<String> codePoints(String text) {
+        List<String> encoded = new ArrayList<>();
+        int next;
+        for (int offset = 0; offset < text.length(); offset += Character.charCount(next)) {
+            next = text.codePointAt(offset);
+            encoded.add(new StringBuilder().appendCodePoint(next).toString());
+        }
+        return encoded;
+    }
+}
@@ -0,0 +1,99 @@
+package org.example.runner;
+
+import io.cucumber.core.eventbus.EventBus;
+import io.cucumber.core.options.RuntimeOptions;
+import io.cucumber.core.runner.Runner;
+import io.cucumber.core.runtime.BackendServiceLoader;
+import io.cucumber.core.runtime.ObjectFactoryServiceLoader;
+import io.cucumber.core.runtime.ObjectFactorySupplier;
+import io.cucumber.core.runtime.RunnerSupplier;
+import io.cucumber.core.runtime.SingletonObjectFactorySupplier;
+
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.function.Supplier;
+
+/**
+ * Shares at most {@code size} Cucumber runners between the scenarios of a run. Each runner loads the glue once,
+ * when it is first needed, and then runs one scenario at a time for whichever thread leases it; a
+ * {@code ThreadLocalRunnerSupplier} would instead build a runner, and load the glue, on every virtual thread, so
+ * once per scenario.
+ * <p>
+ * Outside a lease, as for the before and after all hooks, {@link #get()} returns an idle runner.
+ */
+final class PooledRunnerSupplier implements RunnerSupplier {
+
+    private final RuntimeOptions runtimeOptions;
+    private final EventBus bus;
+    private final Supplier<ClassLoader> classLoader;
+    private final int size;
+
+    // most recently used first, so that a small load keeps reusing the same few runners
+    private final BlockingDeque<Runner> idle = new LinkedBlockingDeque<>();
+    private final ThreadLocal<Runner> leased = new ThreadLocal<>();
+    private int created;
+
+    PooledRunnerSupplier(RuntimeOptions runtimeOptions, EventBus bus, Supplier<ClassLoader> classLoader, int size) {
+        this.runtimeOptions = runtimeOptions;
+        this.bus = bus;
+        this.classLoader = classLoader;
+        this.size = size;
+    }
+
+    /**
+     * Binds an idle runner to the current thread, creating one if fewer than {@code size} exist, or waits for one
+     * to be released.
+     */
+    Runner lease() throws InterruptedException {
+        Runner runner = idle.pollFirst();
+        if (runner == null && reserve()) {
+            runner = createRunner();
+        }
+        if (runner == null) {
+            runner = idle.takeFirst();
+        }
+        leased.set(runner);
+        return runner;
+    }
+
+    void release(Runner runner) {
+        leased.remove();
+        idle.addFirst(runner);
+    }
+
+    @Override
+    public Runner get() {
+        Runner runner = leased.get();
+        if (runner != null) {
+            return runner;
+        }
+        synchronized (this) {
+            runner = idle.peekFirst();
+            if (runner == null) {
+                created++;
+                runner = createRunner();
+                idle.addFirst(runner);
+            }
+            return runner;
+        }
+    }
+
+    synchronized int created() {
+        return created;
+    }
+
+    private synchronized boolean reserve() {
+        if (created >= size) {
+            return false;
+        }
+        created++;
+        return true;
+    }
+
+    private Runner createRunner() {
+        // one object factory per runner, shared by its backends, as SingletonRunnerSupplier does for the whole run
+        ObjectFactorySupplier objectFactory = new SingletonObjectFactorySupplier(
+                new ObjectFactoryServiceLoader(classLoader, runtimeOptions));
+        return new Runner(bus, new BackendServiceLoader(classLoader, objectFactory).get(), objectFactory.get(), runtimeOptions);
+    }
+}
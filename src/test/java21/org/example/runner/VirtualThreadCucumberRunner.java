@@ -0,0 +1,199 @@
+package org.example.runner;
+
+import io.cucumber.core.eventbus.EventBus;
+import io.cucumber.core.feature.FeatureParser;
+import io.cucumber.core.filter.Filters;
+import io.cucumber.core.gherkin.Feature;
+import io.cucumber.core.gherkin.Pickle;
+import io.cucumber.core.options.CucumberPropertiesParser;
+import io.cucumber.core.options.RuntimeOptions;
+import io.cucumber.core.plugin.PluginFactory;
+import io.cucumber.core.plugin.Plugins;
+import io.cucumber.core.resource.ClassLoaders;
+import io.cucumber.core.runner.Runner;
+import io.cucumber.core.runtime.CucumberExecutionContext;
+import io.cucumber.core.runtime.ExitStatus;
+import io.cucumber.core.runtime.FeaturePathFeatureSupplier;
+import io.cucumber.core.runtime.SynchronizedEventBus;
+import io.cucumber.core.runtime.TimeServiceEventBus;
+import io.cucumber.plugin.event.EventHandler;
+import io.cucumber.plugin.event.TestCaseFinished;
+import org.example.metrics.RunMetrics;
+import org.example.scheduling.ScenarioDurations;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Runs the Cucumber suite with one virtual thread per scenario instead of the JUnit Platform's fixed
+ * fork-join pool. Scenarios spend nearly all their time blocked on WebDriver HTTP calls, so the number of
+ * scenarios in flight is limited by {@code cucumber.execution.virtual-threads.max-concurrency}, sized to the
+ * grid, rather than by the number of platform threads. Scenarios are submitted longest-first using the
+ * recorded {@link ScenarioDurations}. The scenarios in flight share that many runners, see
+ * {@link PooledRunnerSupplier}.
+ * <p>
+ * Reads the same {@code cucumber.*} settings as the JUnit Platform run from {@code junit-platform.properties},
+ * overridden by system properties. Requires Java 21; run with {@code mvn verify -Pvirtual-threads}.
+ * <p>
+ * Cucumber has no public API for running pickles, so this drives {@code io.cucumber.core.runtime} classes
+ * directly. They change between minor releases: the profile pins {@code cucumber-core}, and the run refuses to
+ * start on any version other than {@value #CUCUMBER_VERSION}.x.
+ */
+public final class VirtualThreadCucumberRunner {
+
+    public static final String MAX_CONCURRENCY_PROPERTY = "cucumber.execution.virtual-threads.max-concurrency";
+
+    /**
+     * The {@code cucumber-core} minor version whose internals this runner was written against.
+     */
+    static final String CUCUMBER_VERSION = "7.11";
+
+    private static final org.slf4j.Logger log = LoggerFactory.getLogger(VirtualThreadCucumberRunner.class);
+
+    private VirtualThreadCucumberRunner() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (!run(properties())) {
+            throw new IllegalStateException("Cucumber run failed");
+        }
+    }
+
+    /**
+     * @return {@code true} if every scenario passed or was skipped
+     */
+    public static boolean run(Map<String, String> properties) {
+        return run(properties, event -> {
+        });
+    }
+
+    /**
+     * @param onScenarioFinished also told about every finished scenario
+     * @return {@code true} if every scenario passed or was skipped
+     */
+    static boolean run(Map<String, String> properties, EventHandler<TestCaseFinished> onScenarioFinished) {
+        requireSupportedCucumber();
+        int maxConcurrency = Integer.parseInt(properties.getOrDefault(MAX_CONCURRENCY_PROPERTY, "50"));
+        RuntimeOptions runtimeOptions = new CucumberPropertiesParser()
+                .parse(properties)
+                .addDefaultFeaturePathIfAbsent()
+                .addDefaultGlueIfAbsent()
+                .build();
+
+        Supplier<ClassLoader> classLoader = ClassLoaders::getDefaultClassLoader;
+        EventBus bus = SynchronizedEventBus.synchronize(new TimeServiceEventBus(Clock.systemUTC(), UUID::randomUUID));
+
+        Plugins plugins = new Plugins(new PluginFactory(), runtimeOptions);
+        ExitStatus exitStatus = new ExitStatus(runtimeOptions);
+        plugins.addPlugin(exitStatus);
+        plugins.setSerialEventBusOnEventListenerPlugins(bus);
+        AtomicBoolean passed = new AtomicBoolean(true);
+        bus.registerHandlerFor(TestCaseFinished.class, event -> {
+            if (!event.getResult().getStatus().isOk()) {
+                passed.set(false);
+            }
+        });
+        bus.registerHandlerFor(TestCaseFinished.class, onScenarioFinished);
+
+        PooledRunnerSupplier runners = new PooledRunnerSupplier(runtimeOptions, bus, classLoader, maxConcurrency);
+        CucumberExecutionContext context = new CucumberExecutionContext(bus, exitStatus, runners);
+        List<Feature> features = new FeaturePathFeatureSupplier(classLoader, runtimeOptions, new FeatureParser(bus::generateId)).get();
+        Filters filters = new Filters(runtimeOptions);
+
+        context.startTestRun();
+        try {
+            context.runBeforeAllHooks();
+            features.forEach(context::beforeFeature);
+            runPickles(context, runners, features, filters, maxConcurrency);
+        } finally {
+            context.runAfterAllHooks();
+            context.finishTestRun();
+        }
+        return passed.get() && context.getThrowable() == null;
+    }
+
+    private static void runPickles(CucumberExecutionContext context, PooledRunnerSupplier runners, List<Feature> features,
+                                   Filters filters, int maxConcurrency) {
+        List<Future<?>> executions = new ArrayList<>();
+        log.info("Running scenarios on virtual threads, at most {} at a time", maxConcurrency);
+        RunMetrics.instance().workers(maxConcurrency);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Pickle pickle : longestFirst(features, filters)) {
+                executions.add(executor.submit(() -> runPickle(context, runners, pickle)));
+            }
+            for (Future<?> execution : executions) {
+                try {
+                    execution.get();
+                } catch (ExecutionException e) {
+                    log.error("Exception while executing pickle", e.getCause());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    executor.shutdownNow();
+                    return;
+                }
+            }
+        }
+        log.info("Ran {} scenarios on {} runners", executions.size(), runners.created());
+    }
+
+    private static List<Pickle> longestFirst(List<Feature> features, Filters filters) {
+        ScenarioDurations history = ScenarioDurations.load();
+        List<Pickle> pickles = new ArrayList<>();
+        features.forEach(feature -> feature.getPickles().stream().filter(filters).forEach(pickles::add));
+        pickles.sort(Comparator.comparingLong((Pickle pickle) -> history
+                .get(ScenarioDurations.key(pickle.getUri(), pickle.getLocation().getLine()))
+                .orElseGet(history::longest)).reversed());
+        return pickles;
+    }
+
+    private static Void runPickle(CucumberExecutionContext context, PooledRunnerSupplier runners, Pickle pickle)
+            throws InterruptedException {
+        Runner leased = runners.lease();
+        try {
+            context.runTestCase(runner -> runner.runPickle(pickle));
+        } finally {
+            runners.release(leased);
+        }
+        return null;
+    }
+
+    private static void requireSupportedCucumber() {
+        String version = Runner.class.getPackage().getImplementationVersion();
+        if (version == null || !version.startsWith(CUCUMBER_VERSION + ".")) {
+            throw new IllegalStateException("VirtualThreadCucumberRunner drives cucumber-core internals and supports "
+                    + CUCUMBER_VERSION + ".x only, found " + version + "; pin cucumber-core in the virtual-threads "
+                    + "profile or port the runner");
+        }
+    }
+
+    static Map<String, String> properties() throws IOException {
+        Properties properties = new Properties();
+        try (InputStream stream = ClassLoaders.getDefaultClassLoader().getResourceAsStream("junit-platform.properties")) {
+            if (stream != null) {
+                properties.load(stream);
+            }
+        }
+        properties.putAll(System.getProperties());
+        Map<String, String> cucumberProperties = new HashMap<>();
+        properties.stringPropertyNames().stream()
+                .filter(name -> name.startsWith("cucumber."))
+                .forEach(name -> cucumberProperties.put(name, properties.getProperty(name)));
+        cucumberProperties.putIfAbsent("cucumber.features", "classpath:features");
+        return cucumberProperties;
+    }
+}
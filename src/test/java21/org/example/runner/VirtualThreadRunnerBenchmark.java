@@ -0,0 +1,100 @@
+package org.example.runner;
+
+import org.openqa.selenium.json.Json;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs the suite through {@link VirtualThreadCucumberRunner} once per concurrency level, 50, 200 and 500 scenarios
+ * in flight unless levels are given as arguments, and records the throughput and heap cost of each run in
+ * {@code target/virtual-thread-benchmark.json}: wall time, scenarios per second, bytes allocated, peak heap above
+ * the heap left after a full GC before the run, and GC time. Meant for the {@code stub} environment, so that the
+ * runner rather than a grid is measured:
+ * <pre>
+ * mvn verify -Pvirtual-threads -Denvironment=stub -Dvirtual-threads.main=org.example.runner.VirtualThreadRunnerBenchmark
+ * </pre>
+ */
+public final class VirtualThreadRunnerBenchmark {
+
+    private static final org.slf4j.Logger log = LoggerFactory.getLogger(VirtualThreadRunnerBenchmark.class);
+
+    private static final List<Integer> DEFAULT_LEVELS = List.of(50, 200, 500);
+    private static final Path RESULT = Paths.get("target", "virtual-thread-benchmark.json");
+
+    private VirtualThreadRunnerBenchmark() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        List<Integer> levels = args.length == 0 ? DEFAULT_LEVELS : Arrays.stream(args).map(Integer::valueOf).toList();
+        Map<String, String> properties = VirtualThreadCucumberRunner.properties();
+        List<Map<String, Object>> results = new ArrayList<>();
+        for (int level : levels) {
+            Map<String, String> run = new HashMap<>(properties);
+            run.put(VirtualThreadCucumberRunner.MAX_CONCURRENCY_PROPERTY, String.valueOf(level));
+            results.add(measure(level, run));
+        }
+        Files.createDirectories(RESULT.getParent());
+        Files.write(RESULT, new Json().toJson(results).getBytes(StandardCharsets.UTF_8));
+        log.info("Virtual thread benchmark written to {}", RESULT);
+    }
+
+    private static Map<String, Object> measure(int level, Map<String, String> properties) {
+        LongAdder scenarios = new LongAdder();
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        System.gc();
+        long baselineHeap = heapUsed();
+        heapPools().forEach(MemoryPoolMXBean::resetPeakUsage);
+        long gcMillis = gcMillis();
+        long allocated = threads.getTotalThreadAllocatedBytes();
+        long start = System.nanoTime();
+
+        boolean passed = VirtualThreadCucumberRunner.run(properties, event -> scenarios.increment());
+
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("maxConcurrency", level);
+        result.put("passed", passed);
+        result.put("scenarios", scenarios.sum());
+        result.put("elapsedMillis", elapsedMillis);
+        result.put("scenariosPerSecond", elapsedMillis == 0 ? 0 : scenarios.sum() * 1000.0 / elapsedMillis);
+        result.put("allocatedMb", (threads.getTotalThreadAllocatedBytes() - allocated) >> 20);
+        // the pools peak at different moments, so this is an upper bound
+        result.put("peakHeapAboveBaselineMb", Math.max(0, heapPeak() - baselineHeap) >> 20);
+        result.put("gcMillis", gcMillis() - gcMillis);
+        log.info("Virtual thread benchmark at {} in flight: {}", level, result);
+        return result;
+    }
+
+    private static List<MemoryPoolMXBean> heapPools() {
+        return ManagementFactory.getMemoryPoolMXBeans().stream().filter(pool -> pool.getType() == MemoryType.HEAP).toList();
+    }
+
+    private static long heapUsed() {
+        return heapPools().stream().mapToLong(pool -> pool.getUsage().getUsed()).sum();
+    }
+
+    private static long heapPeak() {
+        return heapPools().stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+    }
+
+    private static long gcMillis() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream().mapToLong(GarbageCollectorMXBean::getCollectionTime).sum();
+    }
+}